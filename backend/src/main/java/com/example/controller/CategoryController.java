@@ -3,26 +3,50 @@ package com.example.controller;
 import com.example.model.Category;
 import com.example.model.Habit;
 import com.example.model.PracticeTracker;
+import com.example.model.SyncState;
+import com.example.model.request.PracticeCheckIn;
+import com.example.model.response.CursorPage;
+import com.example.model.response.HabitStats;
+import com.example.model.response.Heatmap;
+import com.example.model.response.ImportResult;
+import com.example.model.response.PracticeCheckInResult;
+import com.example.security.CurrentUser;
 import com.example.service.CategoryService;
+import com.example.service.HabitStatsService;
+import com.example.service.ImportService;
 import com.example.service.PracticeService;
+import com.example.service.SyncStateService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Category Controller for handling category management operations.<br>
+ * The list endpoints carry an ETag and Last-Modified from the user's sync state and answer
+ * If-None-Match and If-Modified-Since with 304 without loading the list.<br>
  * Note: Imported and refactored from todo project
- * @version 1.3.0
+ * @version 1.8.0
  */
 @RestController
 @RequestMapping("/api") //http://localhost:9009/api
 public class CategoryController {
     private CategoryService categoryService;
     private PracticeService practiceService;
+    private HabitStatsService habitStatsService;
+    private SyncStateService syncStateService;
+    private ImportService importService;
     @Autowired //"Connects" category service class, able to use its methods
     public void setCategoryService(CategoryService categoryService){
         this.categoryService = categoryService;
@@ -31,6 +55,31 @@ public class CategoryController {
     public void setPracticeService(PracticeService practiceService) {
         this.practiceService = practiceService;
     }
+    @Autowired
+    public void setHabitStatsService(HabitStatsService habitStatsService) {
+        this.habitStatsService = habitStatsService;
+    }
+    @Autowired
+    public void setSyncStateService(SyncStateService syncStateService) {
+        this.syncStateService = syncStateService;
+    }
+    @Autowired
+    public void setImportService(ImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Checks the conditional headers of a list request against the user's sync state and sets the
+     * ETag, Last-Modified and Cache-Control headers. The revision is read before the list, so a concurrent
+     * write can only make a body newer than its ETag, never older.
+     *
+     * @return true if the client's copy is current; the response is then a complete 304.
+     */
+    private boolean isNotModified(ServletWebRequest webRequest) {
+        SyncState syncState = syncStateService.getSyncState(CurrentUser.get().getId());
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache"); //may be stored, must be revalidated
+        return webRequest.checkNotModified(syncState.etag(), syncState.getLastModified().toEpochMilli());
+    }
 
     @PostMapping(path = "/categories/") //http://localhost:9009/api/categories/
     public Category createCategory(@RequestBody Category categoryObj) {
@@ -43,7 +92,10 @@ public class CategoryController {
     }
 
     @GetMapping(path = "/categories/") //http://localhost:9009/api/categories/
-    public List<Category> getCategories() {
+    public List<Category> getCategories(ServletWebRequest webRequest) {
+        if (isNotModified(webRequest)) {
+            return null; //304
+        }
         return categoryService.getAllCategories();
     }
 
@@ -68,14 +120,46 @@ public class CategoryController {
         return Optional.ofNullable(categoryService.getHabitByIdAndCategory(categoryId, habitId));
     }
     @GetMapping(path = "/habits/") //http://localhost:9009/api/habits/
-    public List<Habit> getAllHabits() {
+    public List<Habit> getAllHabits(ServletWebRequest webRequest) {
+        if (isNotModified(webRequest)) {
+            return null; //304
+        }
         return categoryService.getAllHabits();
     }
 
-    @PutMapping(path = "/habits/{habitId}/") //http://localhost:9009/api/habits/1/
-    public Optional<Habit> updateHabit(@PathVariable(value = "habitId") Long habitId, @RequestBody Habit habit) throws IllegalAccessException {
-        habit.setId(habitId);
-        return Optional.ofNullable(categoryService.updateHabit(habit));
+    @GetMapping(path = "/habits/", params = "limit") //http://localhost:9009/api/habits/?limit=50&cursor=12
+    public CursorPage<Map<String, Object>> getHabitPage(@RequestParam(value = "limit") int limit, @RequestParam(value = "cursor", required = false) String cursor,
+                                          ServletWebRequest webRequest) {
+        if (isNotModified(webRequest)) {
+            return null; //304
+        }
+        return categoryService.getHabitPage(cursor, limit);
+    }
+
+    @RequestMapping(path = "/habits/{habitId}/", method = {RequestMethod.PUT, RequestMethod.PATCH}) //http://localhost:9009/api/habits/1/
+    public Optional<Habit> updateHabit(@PathVariable(value = "habitId") Long habitId, @RequestBody Map<String, Object> patch) {
+        return Optional.ofNullable(categoryService.updateHabit(habitId, patch));
+    }
+
+    @GetMapping(path = "/habits/heatmap/", produces = MediaType.APPLICATION_JSON_VALUE) //http://localhost:9009/api/habits/heatmap/?from=2023-01-01&to=2023-12-31
+    public Heatmap getHeatmap(@RequestParam(value = "from") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                              @RequestParam(value = "to") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to) {
+        return habitStatsService.getHeatmap(from, to);
+    }
+
+    @GetMapping(path = "/habits/heatmap/", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE) //raw bitsets, see HabitStatsService.encodeHeatmap
+    public ResponseEntity<byte[]> getEncodedHeatmap(@RequestParam(value = "from") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                    @RequestParam(value = "to") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to) {
+        return ResponseEntity.ok()
+                .header("X-Heatmap-From", from.toString())
+                .header("X-Heatmap-To", to.toString())
+                .body(HabitStatsService.encodeHeatmap(habitStatsService.getHeatmap(from, to)));
+    }
+
+    @GetMapping(path = "/habits/{habitId}/stats/") //http://localhost:9009/api/habits/1/stats/?date=2023-09-21
+    public HabitStats getHabitStats(@PathVariable(value = "habitId") Long habitId,
+                                    @RequestParam(value = "date", required = false) @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date) {
+        return habitStatsService.getHabitStats(habitId, date != null ? date : LocalDate.now());
     }
 
     @DeleteMapping(path = "/categories/{categoryId}/habits/{habitId}/") //http://localhost:9009/api/categories/1/habits/1/
@@ -88,6 +172,18 @@ public class CategoryController {
     public PracticeTracker createPractice(@PathVariable(value = "habitId") Long habitId, @RequestBody PracticeTracker practiceTracker) {
         return practiceService.createPractice(habitId, practiceTracker);
     }
+    @PostMapping(path = "/practices/batch/") //http://localhost:9009/api/practices/batch/
+    public List<PracticeCheckInResult> createPractices(@RequestBody List<PracticeCheckIn> checkIns) {
+        return practiceService.createPractices(checkIns);
+    }
+
+    @PostMapping(path = "/practices/import/", consumes = {"text/csv", "application/x-ndjson"}) //http://localhost:9009/api/practices/import/
+    public ImportResult importPractices(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        ImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ImportService.Format.CSV : ImportService.Format.NDJSON;
+        return importService.importPractices(CurrentUser.get().getId(), format, body); //read as it arrives, never buffered whole
+    }
+
     @GetMapping(path = "/practices/{habitId}/") //http://localhost:9009/api/practices/1/
     public PracticeTracker getPracticeById(@PathVariable(value = "habitId") Long habitId){
         return practiceService.getPracticeById(habitId);
@@ -97,16 +193,40 @@ public class CategoryController {
     public List<PracticeTracker> getPracticeByDate(@PathVariable(value = "date") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date){
         return practiceService.getPracticeByDate(date);
     }
+
+    @GetMapping(path = "/practices/date/") //http://localhost:9009/api/practices/date/?from=2023-09-01&to=2023-09-30
+    public List<PracticeTracker> getPracticesBetween(@RequestParam(value = "from") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                                                     @RequestParam(value = "to") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to){
+        return practiceService.getPracticesBetween(from, to);
+    }
     @GetMapping(path = "/practices/") //http://localhost:9009/api/practices/
-    public List<PracticeTracker> getAllPractices(){
+    public List<PracticeTracker> getAllPractices(ServletWebRequest webRequest){
+        if (isNotModified(webRequest)) {
+            return null; //304
+        }
         return practiceService.getAllPractices();
     }
 
+    @GetMapping(path = "/practices/", params = "limit") //http://localhost:9009/api/practices/?limit=50&cursor=MjAyMy0wOS0yMToxMg
+    public CursorPage<PracticeTracker> getPracticePage(@RequestParam(value = "limit") int limit, @RequestParam(value = "cursor", required = false) String cursor,
+                                                       ServletWebRequest webRequest){
+        if (isNotModified(webRequest)) {
+            return null; //304
+        }
+        return practiceService.getPracticePage(cursor, limit);
+    }
+
+    @GetMapping(path = "/practices/stream/") //http://localhost:9009/api/practices/stream/
+    public ResponseEntity<StreamingResponseBody> streamPractices(){
+        Long userId = CurrentUser.get().getId(); //resolved here, the body is written on another thread
+        StreamingResponseBody body = outputStream -> practiceService.streamPractices(userId, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
 
-    @PutMapping(path = "/practices/{practiceId}") //http://localhost:9009/api/practices/1/
-    public PracticeTracker updatePractice(@PathVariable(value = "practiceId") Long practiceId,@RequestBody PracticeTracker practice) throws IllegalAccessException {
-        practice.setId(practiceId);
-        return practiceService.updatePractice(practice);
+    @RequestMapping(path = "/practices/{practiceId}", method = {RequestMethod.PUT, RequestMethod.PATCH}) //http://localhost:9009/api/practices/1/
+    public PracticeTracker updatePractice(@PathVariable(value = "practiceId") Long practiceId, @RequestBody Map<String, Object> patch) {
+        return practiceService.updatePractice(practiceId, patch);
     }
 
     @DeleteMapping(path = "/practices/{practiceId}/") //http://localhost:9009/api//practices/1/
@@ -0,0 +1,41 @@
+package com.example.controller;
+
+import com.example.events.ChangeEventHub;
+import com.example.security.CurrentUser;
+import com.example.service.SyncStateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Event Controller pushing the changes of the logged-in user to all of their devices as Server-Sent Events.<br>
+ * The stream starts with a revision event; change events name the entities that changed, and a resync event
+ * tells a client that fell behind to catch up through /api/sync.
+ *
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api") //http://localhost:9009/api
+public class EventController {
+    private ChangeEventHub changeEventHub;
+    private SyncStateService syncStateService;
+
+    @Autowired
+    public void setChangeEventHub(ChangeEventHub changeEventHub) {
+        this.changeEventHub = changeEventHub;
+    }
+
+    @Autowired
+    public void setSyncStateService(SyncStateService syncStateService) {
+        this.syncStateService = syncStateService;
+    }
+
+    @GetMapping(path = "/events/", produces = MediaType.TEXT_EVENT_STREAM_VALUE) //http://localhost:9009/api/events/
+    public SseEmitter streamEvents() {
+        Long userId = CurrentUser.get().getId();
+        return changeEventHub.connect(userId, () -> syncStateService.getSyncState(userId).getRevision()); //read once registered
+    }
+}
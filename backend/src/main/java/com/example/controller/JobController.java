@@ -0,0 +1,62 @@
+package com.example.controller;
+
+import com.example.model.Job;
+import com.example.security.CurrentUser;
+import com.example.service.JobService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+/**
+ * Job Controller for work too long for a request: a job is started with 202 Accepted and the URL of its status,
+ * which the client polls until the job succeeded or failed.
+ *
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api") //http://localhost:9009/api
+public class JobController {
+    private JobService jobService;
+
+    @Autowired
+    public void setJobService(JobService jobService) {
+        this.jobService = jobService;
+    }
+
+    /**
+     * @return 202 Accepted with the job and its status URL.
+     */
+    static ResponseEntity<Job> accepted(Job job) {
+        return ResponseEntity.accepted().location(URI.create("/api/jobs/" + job.getId() + "/")).body(job);
+    }
+
+    @PostMapping(path = "/jobs/export/") //http://localhost:9009/api/jobs/export/
+    public ResponseEntity<Job> startExport() {
+        return accepted(jobService.submit(CurrentUser.get().getId(), Job.Type.EXPORT));
+    }
+
+    @GetMapping(path = "/jobs/{jobId}/") //http://localhost:9009/api/jobs/1/
+    public Job getJob(@PathVariable(value = "jobId") Long jobId) {
+        return jobService.getJob(CurrentUser.get().getId(), jobId);
+    }
+
+    @GetMapping(path = "/jobs/{jobId}/download/") //http://localhost:9009/api/jobs/1/download/
+    public ResponseEntity<Resource> downloadExport(@PathVariable(value = "jobId") Long jobId) {
+        Resource export = new FileSystemResource(jobService.getExportFile(CurrentUser.get().getId(), jobId));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("dailyrise-export.ndjson.gz").build().toString())
+                .body(export);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.controller;
+
+import com.example.exception.InvalidRequestException;
+import com.example.model.SyncState;
+import com.example.security.CurrentUser;
+import com.example.service.SyncStateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Sync Controller for clients keeping a local copy of their categories, habits and practices.<br>
+ * A client stores the X-Sync-Revision of its last sync and passes it back as since; it receives only what
+ * changed after that revision, as newline-delimited JSON, so the cost of a sync follows the number of changes
+ * rather than the length of the history.
+ *
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api") //http://localhost:9009/api
+public class SyncController {
+    public static final String REVISION_HEADER = "X-Sync-Revision";
+
+    private SyncStateService syncStateService;
+
+    @Autowired
+    public void setSyncStateService(SyncStateService syncStateService) {
+        this.syncStateService = syncStateService;
+    }
+
+    @GetMapping(path = {"/sync", "/sync/"}) //http://localhost:9009/api/sync?since=42
+    public ResponseEntity<StreamingResponseBody> getChanges(@RequestParam(value = "since", defaultValue = "0") long since) {
+        if (since < 0) {
+            throw new InvalidRequestException("since must not be negative");
+        }
+        Long userId = CurrentUser.get().getId(); //resolved here, the body is written on another thread
+        SyncState syncState = syncStateService.getSyncState(userId); //the upper bound, read before any change is streamed
+        long upTo = syncState.getRevision();
+        StreamingResponseBody body = outputStream -> syncStateService.streamChanges(userId, since, upTo, outputStream);
+        return ResponseEntity.ok()
+                .header(REVISION_HEADER, String.valueOf(upTo))
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+}
@@ -1,15 +1,18 @@
 package com.example.controller;
 
+import com.example.model.Job;
 import com.example.model.Profile;
 import com.example.model.User;
 import com.example.model.request.LoginRequest;
+import com.example.model.request.RefreshRequest;
 import com.example.model.response.LoginResponse;
-//import com.example.security.MyUserDetails;
+import com.example.security.CurrentUser;
+import com.example.service.JobService;
+import com.example.service.RefreshTokenService;
 import com.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Optional;
@@ -17,12 +20,14 @@ import java.util.Optional;
 /**
  * User Controller for handling user operations including authentication, registration, and profile management.
  *
- * @version 1.2.0
+ * @version 1.4.0
  */
 @RestController
 @RequestMapping(path = "/auth/users") //http://localhost:9009/auth/users
 public class UserController {
     private UserService userService;
+    private RefreshTokenService refreshTokenService;
+    private JobService jobService;
 
     /**
      * Injects dependencies and enables userController to access the resources
@@ -33,15 +38,14 @@ public class UserController {
         this.userService = userService;
     }
 
-    /**
-     * Extracts user information from context holder
-     * @return Current logged in User object
-     * @font todo project
-     */
-    public static User getCurrentLoggedInUser(){
-        MyUserDetails userDetails = (MyUserDetails) SecurityContextHolder //After jwt is generated, Security Context Holder is created to hold the user's state
-                .getContext().getAuthentication().getPrincipal(); // the entire User object, with authentication details
-        return userDetails.getUser();
+    @Autowired
+    public void setRefreshTokenService(RefreshTokenService refreshTokenService) {
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    @Autowired
+    public void setJobService(JobService jobService) {
+        this.jobService = jobService;
     }
 
     /**
@@ -59,26 +63,77 @@ public class UserController {
      * Handles user authentication by generating a JWT token if the credentials are valid.
      *
      * @param loginRequest The LoginRequest containing the user's login credentials.
-     * @return A ResponseEntity with a LoginResponse, which includes the JWT token if successful,
+     * @return A ResponseEntity with a LoginResponse, which includes the JWT and refresh tokens if successful,
      *         or an error message otherwise.
      */
     @PostMapping(path="/login/") //http://localhost:9009/auth/users/login/
     public ResponseEntity<LoginResponse> loginUser(@RequestBody LoginRequest loginRequest) {
-        Optional<String> jwtToken = userService.loginUser(loginRequest);
-        if (jwtToken.isPresent()){
-            return ResponseEntity.ok(new LoginResponse(jwtToken.get()));
+        Optional<LoginResponse> loginResponse = userService.loginUser(loginRequest);
+        if (loginResponse.isPresent()){
+            return ResponseEntity.ok(loginResponse.get());
+        } else {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new LoginResponse("Authentication failed!"));
+        }
+    }
+
+    /**
+     * Renews the JWT with a refresh token instead of the password. The refresh token is rotated.
+     *
+     * @param refreshRequest The refresh token from the last login or refresh.
+     * @return A ResponseEntity with a LoginResponse holding the new JWT and refresh tokens if successful,
+     *         or an error message otherwise.
+     */
+    @PostMapping(path="/refresh/") //http://localhost:9009/auth/users/refresh/
+    public ResponseEntity<LoginResponse> refreshToken(@RequestBody RefreshRequest refreshRequest) {
+        Optional<LoginResponse> loginResponse = refreshTokenService.refresh(refreshRequest.getRefreshToken());
+        if (loginResponse.isPresent()){
+            return ResponseEntity.ok(loginResponse.get());
         } else {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new LoginResponse("Authentication failed!"));
         }
     }
 
+    /**
+     * Logs out the session of the given refresh token by revoking it and every token rotated from the same login.
+     *
+     * @param refreshRequest The refresh token of the session.
+     */
+    @PostMapping(path="/logout/") //http://localhost:9009/auth/users/logout/
+    public ResponseEntity<Void> logoutUser(@RequestBody RefreshRequest refreshRequest) {
+        refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Logs out every session of the logged-in user by revoking all of their refresh tokens.
+     */
+    @PostMapping(path="/logout/all/") //http://localhost:9009/auth/users/logout/all/
+    public ResponseEntity<Void> logoutAllSessions() {
+        refreshTokenService.revokeAll(CurrentUser.get().getId());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Starts deleting the logged-in user's account and all of their data in the background.
+     * The user's sessions are logged out right away; the access token works until the deletion finishes.
+     *
+     * @return 202 Accepted with the deletion job and its status URL.
+     */
+    @DeleteMapping(path="/account/") //http://localhost:9009/auth/users/account/
+    public ResponseEntity<Job> deleteAccount() {
+        Long userId = CurrentUser.get().getId();
+        refreshTokenService.revokeAll(userId);
+        Job job = jobService.submit(userId, Job.Type.ACCOUNT_DELETION);
+        return JobController.accepted(job);
+    }
+
     /**
      * Retrieves the profile of the currently logged-in user.
      * @return Profile object
      */
     @GetMapping(path="/profile/") //http://localhost:9009/auth/users/profile/
     public Profile getUserProfile(){
-        return getCurrentLoggedInUser().getProfile();
+        return userService.findUserByEmailAddress(CurrentUser.get().getEmailAddress()).getProfile(); //the principal only holds credentials
     }
 
     /**
@@ -89,7 +144,8 @@ public class UserController {
      */
     @PutMapping(path="/profile/") //http://localhost:9009/auth/users/profile/
     public Profile updateUserProfile(@RequestBody Profile profile){
-        User user = getCurrentLoggedInUser();
+        User currentUser = CurrentUser.get();
+        User user = new User(currentUser.getId(), currentUser.getEmailAddress(), null); //the principal is cached and shared, never mutate it
         user.setProfile(profile);
         return userService.updateUserProfile(user).getProfile();
     }
@@ -0,0 +1,49 @@
+package com.example.events;
+
+import com.example.model.SyncChange;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Published when entities of a user changed, and pushed to the user's open event streams once the
+ * transaction commits. It only names what changed; clients fetch the new state with a delta sync.
+ *
+ * @version 1.0.0
+ */
+public class ChangeEvent {
+    private final Long userId;
+    private final long revision;
+    private final SyncChange.EntityType type;
+    private final List<Long> ids;
+    private final boolean deleted;
+
+    public ChangeEvent(Long userId, long revision, SyncChange.EntityType type, List<Long> ids, boolean deleted) {
+        this.userId = userId;
+        this.revision = revision;
+        this.type = type;
+        this.ids = ids;
+        this.deleted = deleted;
+    }
+
+    @JsonIgnore
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public SyncChange.EntityType getType() {
+        return type;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.events;
+
+import com.example.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process bus pushing {@link ChangeEvent}s to the open event streams of their user.
+ * <p>
+ * Events are delivered after the publishing transaction commits, by offering them to the bounded queue of
+ * each of the user's connections; nothing here blocks on a client. An idle stream holds no request thread,
+ * only its emitter and a parked virtual writer thread, so tens of thousands of them are cheap.
+ * The number of streams is capped in total and per user, and a heartbeat comment detects dead clients.
+ * Events of concurrent transactions may arrive out of revision order; clients sync by revision anyway.
+ * </p>
+ * @version 1.1.0
+ */
+@Component
+public class ChangeEventHub {
+    private final Map<Long, Set<EventConnection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final Counter queuedCounter;
+    private final Counter overflowCounter;
+    private ScheduledExecutorService heartbeatExecutor;
+
+    @Value("${sse.max-connections:20000}")
+    private int maxConnections;
+
+    @Value("${sse.max-connections-per-user:10}")
+    private int maxConnectionsPerUser;
+
+    /**
+     * The number of events buffered per stream before it is told to resync.
+     */
+    @Value("${sse.queue-capacity:64}")
+    private int queueCapacity;
+
+    /**
+     * How long a stream stays open, in milliseconds; clients reconnect afterwards.
+     */
+    @Value("${sse.timeout-ms:3600000}")
+    private long timeoutMillis;
+
+    @Value("${sse.heartbeat-ms:30000}")
+    private long heartbeatMillis;
+
+    /**
+     * @param meterRegistry Registry of the open stream gauge and the queued and overflow counters.
+     */
+    @Autowired
+    public ChangeEventHub(MeterRegistry meterRegistry) {
+        Gauge.builder("dailyrise.sse.connections", connectionCount, AtomicInteger::get).register(meterRegistry);
+        this.queuedCounter = meterRegistry.counter("dailyrise.sse.events", "result", "queued");
+        this.overflowCounter = meterRegistry.counter("dailyrise.sse.events", "result", "overflow");
+    }
+
+    /**
+     * Starts the heartbeat once the properties are injected.
+     */
+    @PostConstruct
+    public void init() {
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens an event stream for a user. The first event names the current revision, the starting point of a delta sync.
+     * <p>
+     * The revision is read only once the stream is registered, so a change committed meanwhile is either
+     * covered by the revision or queued behind it, never lost.
+     * </p>
+     * @param userId The authenticated user.
+     * @param currentRevision Reads the user's current revision.
+     * @return The emitter to return from the controller.
+     * @throws TooManyRequestsException If the total or per-user number of streams is reached.
+     */
+    public SseEmitter connect(Long userId, LongSupplier currentRevision) {
+        return connect(userId, currentRevision, new SseEmitter(timeoutMillis));
+    }
+
+    /**
+     * Opens an event stream writing to the given emitter.
+     */
+    SseEmitter connect(Long userId, LongSupplier currentRevision, SseEmitter emitter) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new TooManyRequestsException("Too many open event streams, retry later.");
+        }
+        EventConnection connection = new EventConnection(userId, emitter, queueCapacity, this::remove);
+        try {
+            connectionsByUser.compute(userId, (id, connections) -> {
+                Set<EventConnection> userConnections = connections != null ? connections : ConcurrentHashMap.newKeySet();
+                if (userConnections.size() >= maxConnectionsPerUser) {
+                    throw new TooManyRequestsException("Too many open event streams for this user.");
+                }
+                userConnections.add(connection);
+                return userConnections;
+            });
+        } catch (TooManyRequestsException e) {
+            connectionCount.decrementAndGet();
+            throw e;
+        }
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(error -> connection.close());
+        long revision;
+        try {
+            revision = currentRevision.getAsLong();
+        } catch (RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        connection.start(SseEmitter.event().name("revision").id(String.valueOf(revision)).data(revision));
+        return emitter;
+    }
+
+    /**
+     * Pushes a change to the user's streams once its transaction has committed.
+     * A stream whose queue is full gets a single resync event instead of the pending ones.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(ChangeEvent event) {
+        Set<EventConnection> connections = connectionsByUser.get(event.getUserId());
+        if (connections == null) {
+            return;
+        }
+        for (EventConnection connection : connections) {
+            SseEmitter.SseEventBuilder sseEvent = SseEmitter.event() //a builder is consumed by one send
+                    .name("change").id(String.valueOf(event.getRevision())).data(event, MediaType.APPLICATION_JSON);
+            if (connection.offer(sseEvent)) {
+                queuedCounter.increment();
+            } else {
+                overflowCounter.increment();
+                connection.replacePending(SseEmitter.event().name("resync").data(event.getRevision()));
+            }
+        }
+    }
+
+    /**
+     * @return The number of open streams.
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    private void heartbeat() {
+        for (Set<EventConnection> connections : connectionsByUser.values()) {
+            for (EventConnection connection : connections) {
+                connection.offer(SseEmitter.event().comment("heartbeat")); //a full queue is written soon anyway
+            }
+        }
+    }
+
+    private void remove(EventConnection connection) {
+        connectionsByUser.computeIfPresent(connection.getUserId(), (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        connectionCount.decrementAndGet();
+    }
+
+    /**
+     * Completes every open stream, so that clients reconnect to another instance.
+     */
+    @PreDestroy
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        List<EventConnection> connections = new ArrayList<>();
+        connectionsByUser.values().forEach(connections::addAll);
+        for (EventConnection connection : connections) {
+            connection.getEmitter().complete();
+            connection.close();
+        }
+    }
+}
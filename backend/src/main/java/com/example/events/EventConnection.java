@@ -0,0 +1,99 @@
+package com.example.events;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * One open event stream: a bounded queue of events and the virtual thread writing them to the client.
+ * <p>
+ * Publishers only ever offer to the queue, so a slow client never blocks a committing transaction.
+ * When the queue is full the pending events are dropped and replaced by a single resync event;
+ * the client then catches up with a delta sync from the last revision it saw.
+ * </p>
+ * @version 1.1.0
+ */
+final class EventConnection {
+    private final Long userId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+    private final Consumer<EventConnection> onClose;
+    private volatile Thread writer;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    EventConnection(Long userId, SseEmitter emitter, int queueCapacity, Consumer<EventConnection> onClose) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.onClose = onClose;
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    /**
+     * Starts the writer thread. The given event is written first, then the events offered before and after.
+     */
+    void start(SseEmitter.SseEventBuilder first) {
+        writer = Thread.ofVirtual().name("sse-writer-" + userId).start(() -> write(first));
+    }
+
+    /**
+     * Queues an event without blocking.
+     *
+     * @return false if the queue is full or the connection is closed.
+     */
+    boolean offer(SseEmitter.SseEventBuilder event) {
+        return !closed.get() && queue.offer(event);
+    }
+
+    /**
+     * Replaces everything pending by the given event, after an overflow.
+     */
+    void replacePending(SseEmitter.SseEventBuilder event) {
+        queue.clear();
+        queue.offer(event);
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    private void write(SseEmitter.SseEventBuilder first) {
+        try {
+            emitter.send(first);
+            while (!closed.get()) {
+                emitter.send(queue.take()); //blocks this virtual thread only
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // client gone or emitter completed; the container reports the error to the emitter itself
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Stops the writer and deregisters the connection. Safe to call more than once.
+     */
+    void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = writer;
+        if (thread != null && thread != Thread.currentThread()) {
+            thread.interrupt();
+        }
+        onClose.accept(this);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers Hibernate listeners counting entity loads and collection fetches towards the current request.
+ *
+ * @version 1.0.0
+ */
+@Component
+public class HibernateLoadListeners {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public HibernateLoadListeners(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> RequestQueryStatistics.entityLoaded());
+        registry.appendListeners(EventType.INIT_COLLECTION, (InitializeCollectionEventListener) event -> RequestQueryStatistics.collectionFetched());
+    }
+}
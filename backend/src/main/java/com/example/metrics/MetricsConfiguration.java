@@ -0,0 +1,75 @@
+package com.example.metrics;
+
+import com.example.security.ExpiringCache;
+import com.example.security.JWTUtils;
+import com.example.security.PrincipalCache;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Binds the application's own caches to the meter registry.<br>
+ * Service timers come from {@code @Timed} (management.observations.annotations.enabled) and
+ * Hibernate statistics from hibernate-micrometer; all are scraped from /actuator/prometheus.
+ *
+ * @version 1.1.0
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Exposes the size, hits, misses and evictions of the principal cache and the JWT claims cache.
+     */
+    @Bean
+    public MeterBinder cacheMetrics(PrincipalCache principalCache, JWTUtils jwtUtils) {
+        return registry -> {
+            bindCache(registry, "principal", principalCache, PrincipalCache::size,
+                    PrincipalCache::hitCount, PrincipalCache::missCount, PrincipalCache::evictionCount);
+            ExpiringCache<String, Claims> claimsCache = jwtUtils.getClaimsCache();
+            bindCache(registry, "jwt-claims", claimsCache, ExpiringCache::size,
+                    ExpiringCache::hitCount, ExpiringCache::missCount, ExpiringCache::evictionCount);
+        };
+    }
+
+    /**
+     * Exposes the hit ratio of every Hibernate second-level cache region, entity and query regions alike.
+     * The request counts behind it are already published by hibernate-micrometer.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("dailyrise.hibernate.cache.hit.ratio", statistics, stats -> hitRatio(stats.getCacheRegionStatistics(region)))
+                        .tag("region", region)
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return Double.NaN;
+        }
+        long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) regionStatistics.getHitCount() / requests;
+    }
+
+    private static <T> void bindCache(MeterRegistry registry, String name, T cache, ToDoubleFunction<T> size,
+                                      ToDoubleFunction<T> hits, ToDoubleFunction<T> misses, ToDoubleFunction<T> evictions) {
+        Gauge.builder("dailyrise.cache.size", cache, size).tag("cache", name).register(registry);
+        FunctionCounter.builder("dailyrise.cache.hits", cache, hits).tag("cache", name).register(registry);
+        FunctionCounter.builder("dailyrise.cache.misses", cache, misses).tag("cache", name).register(registry);
+        FunctionCounter.builder("dailyrise.cache.evictions", cache, evictions).tag("cache", name).register(registry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+/**
+ * Records, per endpoint, how many SQL statements, entity loads and collection fetches a request caused.<br>
+ * Runs before the security filters, so that the queries of authentication are included. A streaming body
+ * (/api/practices/stream/, /api/sync) is written on an MVC async thread, which counts towards the same request,
+ * and an async request is recorded once it completes. Events written to an open event stream run no queries;
+ * an export download only reads the file its background job wrote.
+ *
+ * @version 1.1.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private static final Object INTERCEPTOR_KEY = RequestMetricsFilter.class.getName() + ".interceptor";
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public RequestMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        RequestQueryStatistics statistics = RequestQueryStatistics.begin();
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(INTERCEPTOR_KEY, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void preProcess(NativeWebRequest webRequest, Callable<T> task) {
+                RequestQueryStatistics.attach(statistics);
+            }
+
+            @Override
+            public <T> void postProcess(NativeWebRequest webRequest, Callable<T> task, Object concurrentResult) {
+                RequestQueryStatistics.detach();
+            }
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueryStatistics.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            String method = request.getMethod();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(uri, method, statistics); //also follows a timeout or an error
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(uri, method, statistics);
+            }
+        }
+    }
+
+    private void record(String uri, String method, RequestQueryStatistics statistics) {
+        record("dailyrise.request.statements", uri, method, statistics.getStatements());
+        record("dailyrise.request.entity.loads", uri, method, statistics.getEntityLoads());
+        record("dailyrise.request.collection.fetches", uri, method, statistics.getCollectionFetches());
+    }
+
+    private void record(String name, String uri, String method, long value) {
+        DistributionSummary.builder(name)
+                .tag("uri", uri)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(value);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the SQL statements, entity loads and collection fetches of the request handled by the current thread.<br>
+ * Counting only happens between begin and end, or attach and detach on a thread that continues the request,
+ * such as the one writing a streaming body; work outside of a request (startup, background jobs) is not counted.
+ *
+ * @version 1.1.0
+ */
+public final class RequestQueryStatistics {
+    private static final ThreadLocal<RequestQueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder(); //the request thread and its async thread may overlap
+    private final LongAdder entityLoads = new LongAdder();
+    private final LongAdder collectionFetches = new LongAdder();
+
+    private RequestQueryStatistics() {
+    }
+
+    /**
+     * Starts counting for the current thread.
+     *
+     * @return The new counts, to be attached to any thread continuing the request.
+     */
+    public static RequestQueryStatistics begin() {
+        RequestQueryStatistics statistics = new RequestQueryStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Counts the work of the current thread towards the given request's counts, until detach.
+     */
+    public static void attach(RequestQueryStatistics statistics) {
+        CURRENT.set(statistics);
+    }
+
+    /**
+     * Stops counting for the current thread without ending the request's counts.
+     */
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Stops counting for the current thread.
+     *
+     * @return The counts since begin, or null if begin was not called.
+     */
+    public static RequestQueryStatistics end() {
+        RequestQueryStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    static void statementPrepared() {
+        RequestQueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements.increment();
+        }
+    }
+
+    static void entityLoaded() {
+        RequestQueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads.increment();
+        }
+    }
+
+    static void collectionFetched() {
+        RequestQueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionFetches.increment();
+        }
+    }
+
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    public long getEntityLoads() {
+        return entityLoads.sum();
+    }
+
+    public long getCollectionFetches() {
+        return collectionFetches.sum();
+    }
+}
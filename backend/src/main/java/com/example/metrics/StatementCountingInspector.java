@@ -0,0 +1,18 @@
+package com.example.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares towards the current request.<br>
+ * Registered through hibernate.session_factory.statement_inspector; the statement is returned unchanged.
+ *
+ * @version 1.0.0
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestQueryStatistics.statementPrepared();
+        return sql;
+    }
+}
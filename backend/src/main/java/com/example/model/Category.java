@@ -1,14 +1,18 @@
 package com.example.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
-import org.hibernate.annotations.LazyCollection;
-import org.hibernate.annotations.LazyCollectionOption;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 
 import java.util.List;
 @Entity
-@Table(name="categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) //second-level cache, kept in step with every write
+@Table(name = "categories",
+        uniqueConstraints = @UniqueConstraint(name = "uk_categories_user_name", columnNames = {"user_id", "name"})) //category names are unique per user, also the (user_id, name) index
 public class Category {
     @Id //Primary Key
     @GeneratedValue(strategy = GenerationType.IDENTITY) //generate sequence of unused values
@@ -18,13 +22,16 @@ public class Category {
     private String name;
     @Column
     private String description;
+    @Version //optimistic locking; bumped by every update
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY) //clients send it back in a patch, never set it
+    private Long version;
     @JsonIgnore // prevents stack overflow
-    @ManyToOne //Many categories belong to the same user
+    @ManyToOne(fetch = FetchType.LAZY) //Many categories belong to the same user
     @JoinColumn(name = "user_id")
     private User user;
-    @OneToMany(mappedBy = "category", orphanRemoval = true)//if deleted, deletes associated records as well
-    @LazyCollection(LazyCollectionOption.FALSE) //loads associated habits when loading the category
-    private List<Habit> habitList;
+    @OneToMany(mappedBy = "category") //removed with bulk deletes, see CategoryService.deleteCategory
+    private List<Habit> habitList; //loaded on demand, fetch-joined by the CategoryRepository queries that return it
 
     public Category() {
     }
@@ -55,6 +62,10 @@ public class Category {
         return description;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public void setDescription(String description) {
         this.description = description;
     }
@@ -1,17 +1,23 @@
 package com.example.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.*;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import org.hibernate.annotations.LazyCollection;
-import org.hibernate.annotations.LazyCollectionOption;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
 @Entity
-@Table(name = "habits")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) //second-level cache, kept in step with every write
+@DynamicUpdate //updates write only the patched columns
+@Table(name = "habits",
+        uniqueConstraints = @UniqueConstraint(name = "uk_habits_user_name", columnNames = {"user_id", "name"})) //habit names are unique per user, also the (user_id, name) index
 public class Habit {
     @Id //Primary Key
     @GeneratedValue(strategy = GenerationType.IDENTITY) //generate sequence of unused values
@@ -25,18 +31,21 @@ public class Habit {
     private String outcome;
     @Column
     private String routine;
+    @Version //optimistic locking; bumped by every update
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY) //clients send it back in a patch, never set it
+    private Long version;
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
     @JsonIgnore //prevents stack overflow
-    @ManyToOne //Many habits belong to the same category
+    @ManyToOne(fetch = FetchType.LAZY) //Many habits belong to the same category
     @JoinColumn(name = "category_id")
     private Category category;
 
-    @OneToMany(mappedBy = "habit", orphanRemoval = true)
-    @LazyCollection(LazyCollectionOption.FALSE)
-    private List<PracticeTracker> practiceTrackerList;
+    @OneToMany(mappedBy = "habit") //removed with a bulk delete, see CategoryService.deleteHabit
+    private List<PracticeTracker> practiceTrackerList; //loaded on demand, fetch-joined or batch-fetched by the queries that return it
 
 
     public Habit() {
@@ -87,6 +96,10 @@ public class Habit {
         return routine;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public void setRoutine(String routine) {
         this.routine = routine;
     }
@@ -0,0 +1,99 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Materialized streak and completion counters of one habit.<br>
+ * Maintained by HabitSummaryService in the same transaction as every practice write,
+ * so reading a habit's streak never has to scan its practice history.
+ */
+@Entity
+@Table(name = "habit_summaries")
+public class HabitSummary {
+    @Id //Primary Key, shared with the habit
+    @Column(name = "habit_id")
+    private Long habitId;
+    @Column
+    private int currentStreak; //consecutive done days ending at lastDoneDate
+    @Column
+    private int longestStreak;
+    @Column
+    private LocalDate lastDoneDate;
+    @Column
+    private int totalDone; //distinct done days
+
+    public HabitSummary() {
+    }
+
+    public HabitSummary(Long habitId, int currentStreak, int longestStreak, LocalDate lastDoneDate, int totalDone) {
+        this.habitId = habitId;
+        this.currentStreak = currentStreak;
+        this.longestStreak = longestStreak;
+        this.lastDoneDate = lastDoneDate;
+        this.totalDone = totalDone;
+    }
+
+    public Long getHabitId() {
+        return habitId;
+    }
+
+    public void setHabitId(Long habitId) {
+        this.habitId = habitId;
+    }
+
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public void setCurrentStreak(int currentStreak) {
+        this.currentStreak = currentStreak;
+    }
+
+    public int getLongestStreak() {
+        return longestStreak;
+    }
+
+    public void setLongestStreak(int longestStreak) {
+        this.longestStreak = longestStreak;
+    }
+
+    public LocalDate getLastDoneDate() {
+        return lastDoneDate;
+    }
+
+    public void setLastDoneDate(LocalDate lastDoneDate) {
+        this.lastDoneDate = lastDoneDate;
+    }
+
+    public int getTotalDone() {
+        return totalDone;
+    }
+
+    public void setTotalDone(int totalDone) {
+        this.totalDone = totalDone;
+    }
+
+    /**
+     * @return true if both summaries hold the same counters.
+     */
+    public boolean sameCountersAs(HabitSummary other) {
+        return currentStreak == other.currentStreak &&
+                longestStreak == other.longestStreak &&
+                totalDone == other.totalDone &&
+                Objects.equals(lastDoneDate, other.lastDoneDate);
+    }
+
+    @Override
+    public String toString() {
+        return "HabitSummary{" +
+                "habitId=" + habitId +
+                ", currentStreak=" + currentStreak +
+                ", longestStreak=" + longestStreak +
+                ", lastDoneDate=" + lastDoneDate +
+                ", totalDone=" + totalDone +
+                '}';
+    }
+}
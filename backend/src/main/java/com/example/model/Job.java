@@ -0,0 +1,120 @@
+package com.example.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A unit of background work requested by a user, such as a data export or an account deletion.<br>
+ * Jobs are persisted so their status survives the request that started them and a restart;
+ * the user id is a plain column, so a deletion job outlives the user it deleted.
+ */
+@Entity
+@Table(name = "jobs", indexes = {
+        @Index(name = "idx_jobs_user_type_status", columnList = "user_id, type, status"), //a user's active job of a kind
+        @Index(name = "idx_jobs_status", columnList = "status") //jobs left over at startup
+})
+public class Job {
+    public enum Type {
+        EXPORT, ACCOUNT_DELETION
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    @Id //Primary Key
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Type type;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+    @Column(nullable = false)
+    private long processed; //rows exported or deleted so far
+    @Column
+    private Long total; //rows expected, once known
+    @Column(nullable = false)
+    private Instant createdAt;
+    @Column
+    private Instant startedAt;
+    @Column
+    private Instant finishedAt;
+    @Column(length = 1000)
+    private String error;
+    @JsonIgnore
+    @Column(length = 1000)
+    private String resultPath; //the file of a finished export
+
+    public Job() {
+    }
+
+    public Job(Long userId, Type type, Instant createdAt) {
+        this.userId = userId;
+        this.type = type;
+        this.status = Status.QUEUED;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public String getResultPath() {
+        return resultPath;
+    }
+
+    @Override
+    public String toString() {
+        return "Job{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", type=" + type +
+                ", status=" + status +
+                ", processed=" + processed +
+                ", total=" + total +
+                '}';
+    }
+}
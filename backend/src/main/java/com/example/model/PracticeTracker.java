@@ -1,27 +1,37 @@
 package com.example.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 
 import java.time.LocalDate;
 @Entity
-@Table(name = "practices")
+@DynamicUpdate //updates write only the patched columns
+@Table(name = "practices",
+        indexes = @Index(name = "idx_practices_user_date", columnList = "user_id, date"), //per-user date and range lookups
+        uniqueConstraints = @UniqueConstraint(name = "uk_practices_habit_date", columnNames = {"habit_id", "date"})) //one check-in per habit and day, also the (habit_id, date) index
 public class PracticeTracker {
     @Id //Primary Key
-    @GeneratedValue(strategy = GenerationType.IDENTITY) //generate sequence of unused values
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "practices_seq") //ids are reserved 50 at a time, so inserts can be batched
+    @SequenceGenerator(name = "practices_seq", sequenceName = "practices_seq", allocationSize = 50)
     @Column
     private Long id;
     @Column
     private boolean done;
     @Column
     private LocalDate date;
+    @Version //optimistic locking; bumped by every update
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY) //clients send it back in a patch, never set it
+    private Long version;
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "habit_id")
     private Habit habit;
     @JsonIgnore
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -55,6 +65,10 @@ public class PracticeTracker {
         return date;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public void setDate(LocalDate date) {
         this.date = date;
     }
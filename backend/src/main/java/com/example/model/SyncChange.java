@@ -0,0 +1,89 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One entry of a user's change log: a category, habit or practice was created or updated, or deleted.<br>
+ * Entries are written in the same transaction as the change and share the revision of their sync state,
+ * so a client that applied everything up to a revision only needs the entries after it.
+ * A habit tombstone also stands for the practices of that habit.
+ */
+@Entity
+@Table(name = "sync_changes", indexes = @Index(name = "idx_sync_changes_user_revision", columnList = "user_id, revision"))
+public class SyncChange {
+    public enum EntityType {
+        CATEGORY, HABIT, PRACTICE
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sync_changes_seq") //reserved 50 at a time, so batch check-ins log in batches
+    @SequenceGenerator(name = "sync_changes_seq", sequenceName = "sync_changes_seq", allocationSize = 50)
+    @Column
+    private Long id;
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    @Column(nullable = false)
+    private long revision;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EntityType entityType;
+    @Column(nullable = false)
+    private Long entityId;
+    @Column(nullable = false)
+    private boolean deleted; //tombstone
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    public SyncChange() {
+    }
+
+    public SyncChange(Long userId, long revision, EntityType entityType, Long entityId, boolean deleted, Instant changedAt) {
+        this.userId = userId;
+        this.revision = revision;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deleted = deleted;
+        this.changedAt = changedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncChange{" +
+                "userId=" + userId +
+                ", revision=" + revision +
+                ", entityType=" + entityType +
+                ", entityId=" + entityId +
+                ", deleted=" + deleted +
+                '}';
+    }
+}
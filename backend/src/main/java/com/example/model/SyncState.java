@@ -0,0 +1,59 @@
+package com.example.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Revision and last-modified time of everything a user can list: categories, habits and practices.<br>
+ * Bumped in the same transaction as every write, so a client that saw the current revision
+ * can be answered with 304 Not Modified without loading any of those entities.
+ */
+@Entity
+@Table(name = "sync_states")
+public class SyncState {
+    @Id //Primary Key, shared with the user
+    @Column(name = "user_id")
+    private Long userId;
+    @Column(nullable = false)
+    private long revision; //0 until the first change
+    @Column(nullable = false)
+    private Instant lastModified;
+
+    public SyncState() {
+    }
+
+    public SyncState(Long userId, long revision, Instant lastModified) {
+        this.userId = userId;
+        this.revision = revision;
+        this.lastModified = lastModified;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return The weak ETag of the user's collections at this revision.
+     */
+    public String etag() {
+        return "W/\"" + userId + "-" + revision + "\"";
+    }
+
+    @Override
+    public String toString() {
+        return "SyncState{" +
+                "userId=" + userId +
+                ", revision=" + revision +
+                ", lastModified=" + lastModified +
+                '}';
+    }
+}
@@ -1,8 +1,6 @@
 package com.example.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.hibernate.annotations.LazyCollection;
-import org.hibernate.annotations.LazyCollectionOption;
 
 import jakarta.persistence.*;
 import java.util.List;
@@ -22,16 +20,13 @@ public class User {
     @JoinColumn(name = "profile_id", referencedColumnName = "id")
     private Profile profile;
 
-    @OneToMany(mappedBy = "user", orphanRemoval = true) //if deleted, deletes associated records as well
-    @LazyCollection(LazyCollectionOption.FALSE) //loads associated categories when loading the user
-    private List<Category> categoryList;
-    @OneToMany(mappedBy = "user", orphanRemoval = true)
-    @LazyCollection(LazyCollectionOption.FALSE)
-    private List<Habit> habitList;
+    @OneToMany(mappedBy = "user") //removed with bulk deletes, see AccountService.deleteAccount
+    private List<Category> categoryList; //loaded on demand, see CategoryRepository.findByUserId
+    @OneToMany(mappedBy = "user")
+    private List<Habit> habitList; //loaded on demand, see HabitRepository.findByUserId
 
-    @OneToMany(mappedBy = "user", orphanRemoval = true)
-    @LazyCollection(LazyCollectionOption.FALSE)
-    private List<PracticeTracker> practiceList;
+    @OneToMany(mappedBy = "user")
+    private List<PracticeTracker> practiceList; //loaded on demand, see PracticeRepository.findByUserId
 
     public User() {
     }
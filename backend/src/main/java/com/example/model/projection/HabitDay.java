@@ -0,0 +1,14 @@
+package com.example.model.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of the habit and date of a practice, loaded without the practice entity.
+ *
+ * @version 1.0.0
+ */
+public interface HabitDay {
+    Long getHabitId();
+
+    LocalDate getDate();
+}
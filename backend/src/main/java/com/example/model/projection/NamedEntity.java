@@ -0,0 +1,12 @@
+package com.example.model.projection;
+
+/**
+ * Read-only projection of the id and name of a category or habit, loaded without the entity.
+ *
+ * @version 1.0.0
+ */
+public interface NamedEntity {
+    Long getId();
+
+    String getName();
+}
@@ -0,0 +1,15 @@
+package com.example.model.projection;
+
+/**
+ * Read-only projection of the columns needed to authenticate a user.<br>
+ * Loading it never touches the profile, categories, habits or practices of the user.
+ *
+ * @version 1.0.0
+ */
+public interface UserCredentials {
+    Long getId();
+
+    String getEmailAddress();
+
+    String getPassword();
+}
@@ -0,0 +1,36 @@
+package com.example.model.request;
+
+import java.time.LocalDate;
+
+/**
+ * Represents a single check-in of a batch check-in request.<br>
+ * This class is used just for batch check-in request handling.
+ *
+ * @version 1.0.0
+ */
+public class PracticeCheckIn {
+    private Long habitId;
+    private LocalDate date;
+    private boolean done;
+
+    public PracticeCheckIn() {
+    }
+
+    public PracticeCheckIn(Long habitId, LocalDate date, boolean done) {
+        this.habitId = habitId;
+        this.date = date;
+        this.done = done;
+    }
+
+    public Long getHabitId() {
+        return habitId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+}
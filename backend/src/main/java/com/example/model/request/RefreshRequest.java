@@ -0,0 +1,14 @@
+package com.example.model.request;
+/**
+ * Represents a request carrying a refresh token, used to renew the access token or to log out.
+ *
+ * @version 1.0.0
+ */
+public class RefreshRequest {
+    private String refreshToken;
+
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+}
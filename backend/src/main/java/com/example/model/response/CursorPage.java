@@ -0,0 +1,32 @@
+package com.example.model.response;
+
+import java.util.List;
+
+/**
+ * Represents one page of a keyset-paginated collection.<br>
+ * The nextCursor is opaque to clients; passing it back returns the following page.
+ *
+ * @param <T> The type of the items in the page.
+ * @version 1.0.0
+ */
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The cursor of the next page,
+     *         or null if this is the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.model.response;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the streak and completion statistics of a single habit as of a given date.<br>
+ * Completion rates are the share of days in the window, ending at asOf, on which the habit was done.
+ *
+ * @version 1.0.0
+ */
+public class HabitStats {
+    private final Long habitId;
+    private final LocalDate asOf;
+    private final int currentStreak;
+    private final int longestStreak;
+    private final LocalDate lastDoneDate;
+    private final int totalDone;
+    private final double completionRate7;
+    private final double completionRate30;
+    private final double completionRate365;
+
+    public HabitStats(Long habitId, LocalDate asOf, int currentStreak, int longestStreak, LocalDate lastDoneDate,
+                      int totalDone, double completionRate7, double completionRate30, double completionRate365) {
+        this.habitId = habitId;
+        this.asOf = asOf;
+        this.currentStreak = currentStreak;
+        this.longestStreak = longestStreak;
+        this.lastDoneDate = lastDoneDate;
+        this.totalDone = totalDone;
+        this.completionRate7 = completionRate7;
+        this.completionRate30 = completionRate30;
+        this.completionRate365 = completionRate365;
+    }
+
+    public Long getHabitId() {
+        return habitId;
+    }
+
+    public LocalDate getAsOf() {
+        return asOf;
+    }
+
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public int getLongestStreak() {
+        return longestStreak;
+    }
+
+    public LocalDate getLastDoneDate() {
+        return lastDoneDate;
+    }
+
+    public int getTotalDone() {
+        return totalDone;
+    }
+
+    public double getCompletionRate7() {
+        return completionRate7;
+    }
+
+    public double getCompletionRate30() {
+        return completionRate30;
+    }
+
+    public double getCompletionRate365() {
+        return completionRate365;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.model.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Represents the done days of each habit of a user over a date range, one bit per day.<br>
+ * Bit i of byte j of a habit's days is set when the habit was done on day 8 * j + i of the range,
+ * counting from. In JSON the days are Base64 encoded: a year takes 46 bytes, 64 characters.
+ *
+ * @version 1.0.0
+ */
+public class Heatmap {
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<HabitDays> habits;
+
+    public Heatmap(LocalDate from, LocalDate to, List<HabitDays> habits) {
+        this.from = from;
+        this.to = to;
+        this.habits = habits;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public List<HabitDays> getHabits() {
+        return habits;
+    }
+
+    /**
+     * The done days of one habit, little-endian bit per day.
+     */
+    public static class HabitDays {
+        private final Long habitId;
+        private final byte[] days;
+
+        public HabitDays(Long habitId, byte[] days) {
+            this.habitId = habitId;
+            this.days = days;
+        }
+
+        public Long getHabitId() {
+            return habitId;
+        }
+
+        public byte[] getDays() {
+            return days;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.model.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the outcome of a practice import.<br>
+ * Every data line counts once, as imported, duplicate or failed. Only the first errors are listed,
+ * errorsTruncated tells whether more lines failed than are listed.
+ *
+ * @version 1.0.0
+ */
+public class ImportResult {
+    /**
+     * A line of the upload that was not imported, numbered from 1 including the CSV header.
+     */
+    public record LineError(long line, String message) {
+    }
+
+    private final int maxErrors;
+    private long rows;
+    private long imported;
+    private long duplicates;
+    private long failed;
+    private int categoriesCreated;
+    private int habitsCreated;
+    private double elapsedMs;
+    private double rowsPerSecond;
+    private final List<LineError> errors = new ArrayList<>();
+
+    /**
+     * @param maxErrors The number of line errors listed at most.
+     */
+    public ImportResult(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public int getCategoriesCreated() {
+        return categoriesCreated;
+    }
+
+    public int getHabitsCreated() {
+        return habitsCreated;
+    }
+
+    public double getElapsedMs() {
+        return elapsedMs;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    /**
+     * Counts a data line read from the upload.
+     */
+    public void rowRead() {
+        rows++;
+    }
+
+    /**
+     * Adds the outcome of a committed batch.
+     */
+    public void batchStored(long imported, long duplicates, int categoriesCreated, int habitsCreated) {
+        this.imported += imported;
+        this.duplicates += duplicates;
+        this.categoriesCreated += categoriesCreated;
+        this.habitsCreated += habitsCreated;
+    }
+
+    /**
+     * Records a line that was not imported.
+     */
+    public void fail(long line, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new LineError(line, message));
+        }
+    }
+
+    /**
+     * Records how long the import took, and the rate at which it read lines.
+     */
+    public void finish(long elapsedNanos) {
+        long nanos = Math.max(elapsedNanos, 1);
+        this.elapsedMs = nanos / 1e6;
+        this.rowsPerSecond = rows * 1e9 / nanos;
+    }
+}
@@ -1,17 +1,28 @@
 package com.example.model.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Represents a login response containing a JWT (JSON Web Token) for authentication.<br>
- * This class is primarily used for creating login response objects.
+ * This class is primarily used for creating login response objects.<br>
+ * Successful logins and refreshes also carry the refresh token that renews the JWT once it expires.
  *
- * @version 1.0.0
+ * @version 1.1.0
  */
 public class LoginResponse {
     private String jwt;
+    @JsonInclude(JsonInclude.Include.NON_NULL) //absent from error responses
+    private String refreshToken;
 
     public LoginResponse(String jwt) {
         this.jwt = jwt;
     }
 
+    public LoginResponse(String jwt, String refreshToken) {
+        this.jwt = jwt;
+        this.refreshToken = refreshToken;
+    }
+
     public String getJwt() {
         return jwt;
     }
@@ -19,4 +30,12 @@ public class LoginResponse {
     public void setJwt(String jwt) {
         this.jwt = jwt;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
@@ -0,0 +1,71 @@
+package com.example.model.response;
+
+import java.time.LocalDate;
+
+/**
+ * Represents the outcome of one check-in of a batch check-in request.<br>
+ * Results are returned in the order of the request; index is the position of the check-in in it.
+ *
+ * @version 1.0.0
+ */
+public class PracticeCheckInResult {
+    /**
+     * The outcome of a single check-in.
+     */
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        HABIT_NOT_FOUND,
+        INVALID
+    }
+
+    private final int index;
+    private final Long habitId;
+    private final LocalDate date;
+    private Status status;
+    private Long practiceId;
+    private String message;
+
+    public PracticeCheckInResult(int index, Long habitId, LocalDate date) {
+        this.index = index;
+        this.habitId = habitId;
+        this.date = date;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Long getHabitId() {
+        return habitId;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Long getPracticeId() {
+        return practiceId;
+    }
+
+    public void setPracticeId(Long practiceId) {
+        this.practiceId = practiceId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Records the outcome of the check-in.
+     */
+    public PracticeCheckInResult status(Status status, String message) {
+        this.status = status;
+        this.message = message;
+        return this;
+    }
+}
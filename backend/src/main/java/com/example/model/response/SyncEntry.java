@@ -0,0 +1,54 @@
+package com.example.model.response;
+
+import com.example.model.SyncChange;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Represents one line of the delta sync stream: the current state of a changed entity, or its tombstone.<br>
+ * Entities are flattened to their own columns plus the id of their parent, so that a category does not
+ * drag its habits and practices along.
+ *
+ * @version 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncEntry {
+    private final long revision;
+    private final SyncChange.EntityType type;
+    private final Long id;
+    private final boolean deleted;
+    private final Map<String, Object> entity;
+
+    public SyncEntry(long revision, SyncChange.EntityType type, Long id, boolean deleted, Map<String, Object> entity) {
+        this.revision = revision;
+        this.type = type;
+        this.id = id;
+        this.deleted = deleted;
+        this.entity = entity;
+    }
+
+    public long getRevision() {
+        return revision;
+    }
+
+    public SyncChange.EntityType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    /**
+     * @return The entity's current columns,
+     *         or null for a tombstone.
+     */
+    public Map<String, Object> getEntity() {
+        return entity;
+    }
+}
@@ -1,11 +1,53 @@
 package com.example.repository;
 
 import com.example.model.Category;
+import com.example.model.projection.NamedEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> { // Entity and primary key data type
+    /**
+     * Results are kept in the query cache until the categories table changes; the category itself
+     * comes from the second-level cache.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Category findByNameAndUserId(String categoryName, Long userId);
+
+    /**
+     * Whether the user already has a category of that name, answered from the uk_categories_user_name index.
+     */
+    boolean existsByNameAndUserId(String categoryName, Long userId);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Category findByIdAndUserId(Long categoryId, Long userId);
+
+    @EntityGraph(attributePaths = "habitList") // habits are fetch-joined, their practices are batch-fetched
+    Category findWithHabitsByIdAndUserId(Long categoryId, Long userId);
+
+    @EntityGraph(attributePaths = "habitList")
+    List<Category> findByUserId(Long userId);
+
+    /**
+     * The ids and names of a user's categories, without their habits.
+     */
+    @Query("select c.id as id, c.name as name from Category c where c.user.id = :userId")
+    List<NamedEntity> findNamesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Bulk delete of a user's categories; their habits must be deleted first.
+     */
+    @Modifying
+    @Query("delete from Category c where c.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
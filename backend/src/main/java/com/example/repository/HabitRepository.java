@@ -1,12 +1,79 @@
 package com.example.repository;
 
 import com.example.model.Habit;
+import com.example.model.projection.NamedEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+
 public interface HabitRepository extends JpaRepository<Habit, Long> {
-    Habit findByName(String habitName);
+    /**
+     * Whether the user already has a habit of that name, answered from the uk_habits_user_name index.
+     */
+    boolean existsByNameAndUserId(String habitName, Long userId);
 
+    @EntityGraph(attributePaths = "practiceTrackerList") // the habit list is returned with its practices
     List<Habit> findByUserId(Long userId);
+
+    boolean existsByIdAndUserId(Long habitId, Long userId);
+
+    /**
+     * Loads a habit only if it belongs to the user. Cached like the category lookups: the check-in path
+     * usually gets both the query result and the habit without a statement.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Habit findByIdAndUserId(Long habitId, Long userId);
+
+    /**
+     * Loads a habit with its practices in one query, only if it is in that category and belongs to the user.
+     */
+    @EntityGraph(attributePaths = "practiceTrackerList")
+    Habit findWithPracticesByIdAndCategoryIdAndUserId(Long habitId, Long categoryId, Long userId);
+
+    /**
+     * Loads those of the given habits that belong to the user, in one query.
+     */
+    List<Habit> findByIdInAndUserId(Collection<Long> habitIds, Long userId);
+
+    @Query("select h.id from Habit h")
+    List<Long> findAllIds();
+
+    @Query("select h.id from Habit h where h.user.id = :userId order by h.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * The ids and names of a user's habits, without their categories or practices.
+     */
+    @Query("select h.id as id, h.name as name from Habit h where h.user.id = :userId")
+    List<NamedEntity> findNamesByUserId(@Param("userId") Long userId);
+
+    @Query("select h.id from Habit h where h.category.id = :categoryId order by h.id")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * Bulk deletes of the habits of a category or a user; their practices and summaries must be deleted first.
+     * Hibernate evicts the habit cache region afterwards.
+     */
+    @Modifying
+    @Query("delete from Habit h where h.category.id = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query("delete from Habit h where h.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    /**
+     * Page of a user's habits with ids greater than the given cursor; practices are not loaded.
+     */
+    List<Habit> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long id, Pageable pageable);
 }
@@ -0,0 +1,31 @@
+package com.example.repository;
+
+import com.example.model.HabitSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface HabitSummaryRepository extends JpaRepository<HabitSummary, Long> {
+    /**
+     * Loads the summary of a habit and locks its row until the transaction ends,
+     * so concurrent check-ins of the same habit apply their increments one after the other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from HabitSummary s where s.habitId = :habitId")
+    Optional<HabitSummary> lockByHabitId(@Param("habitId") Long habitId);
+
+    @Modifying
+    @Query("delete from HabitSummary s where s.habitId in (select h.id from Habit h where h.category.id = :categoryId)")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query("delete from HabitSummary s where s.habitId in (select h.id from Habit h where h.user.id = :userId)")
+    int deleteByUserId(@Param("userId") Long userId);
+}
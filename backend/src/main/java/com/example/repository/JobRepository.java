@@ -0,0 +1,76 @@
+package com.example.repository;
+
+import com.example.model.Job;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A Spring Data JPA repository for managing Job entities.<br>
+ * Workers change a job only through the conditional updates below, each in its own short transaction,
+ * so the status endpoint sees progress while the job runs.
+ *
+ * @version 1.0.0
+ */
+@Repository
+public interface JobRepository extends JpaRepository<Job, Long> {
+    Job findByIdAndUserId(Long id, Long userId);
+
+    Job findFirstByUserIdAndTypeAndStatusInOrderByIdDesc(Long userId, Job.Type type, Collection<Job.Status> statuses);
+
+    List<Job> findByStatusOrderByIdAsc(Job.Status status);
+
+    List<Job> findByUserIdAndTypeAndResultPathNotNullAndIdNot(Long userId, Job.Type type, Long id);
+
+    /**
+     * Moves a queued job to running. Two workers handed the same job cannot both start it.
+     * @return 1 if this call started the job, 0 otherwise.
+     */
+    default int start(Long id, Instant now) {
+        return transition(id, Job.Status.QUEUED, Job.Status.RUNNING, now);
+    }
+
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.status = :to, j.startedAt = :now where j.id = :id and j.status = :from")
+    int transition(@Param("id") Long id, @Param("from") Job.Status from, @Param("to") Job.Status to, @Param("now") Instant now);
+
+    /**
+     * Records progress in its own transaction, so that it is visible while the job's transaction is still open.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("update Job j set j.processed = :processed, j.total = :total where j.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("processed") long processed, @Param("total") Long total);
+
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.status = :status, j.finishedAt = :now, j.error = :error, j.resultPath = :resultPath where j.id = :id")
+    int finish(@Param("id") Long id, @Param("status") Job.Status status, @Param("now") Instant now,
+               @Param("error") String error, @Param("resultPath") String resultPath);
+
+    /**
+     * Puts the jobs that were running when the application stopped back in the queue, from the start.
+     */
+    default int requeueRunning() {
+        return requeue(Job.Status.RUNNING, Job.Status.QUEUED);
+    }
+
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.status = :to, j.processed = 0 where j.status = :from")
+    int requeue(@Param("from") Job.Status from, @Param("to") Job.Status to);
+
+    @Transactional
+    @Modifying
+    @Query("update Job j set j.resultPath = null where j.id = :id")
+    int clearResultPath(@Param("id") Long id);
+}
@@ -0,0 +1,38 @@
+package com.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Keeps an entity manager open for the whole of a request, like spring.jpa.open-in-view, except on event streams.<br>
+ * The entity manager of an asynchronous request stays open until the request completes, and holds its JDBC
+ * connection from the first query on. An event stream stays open for up to an hour, so with the default
+ * interceptor every open stream would keep one pooled connection. Declaring the interceptor here makes
+ * Spring Boot skip its own.
+ *
+ * @version 1.0.0
+ */
+@Configuration
+public class OpenEntityManagerInViewConfiguration implements WebMvcConfigurer {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public OpenEntityManagerInViewConfiguration(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Bean
+    public OpenEntityManagerInViewInterceptor openEntityManagerInViewInterceptor() {
+        OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+        interceptor.setEntityManagerFactory(entityManagerFactory);
+        return interceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addWebRequestInterceptor(openEntityManagerInViewInterceptor()).excludePathPatterns("/api/events/**");
+    }
+}
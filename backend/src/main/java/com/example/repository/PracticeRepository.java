@@ -1,14 +1,114 @@
 package com.example.repository;
 
 import com.example.model.PracticeTracker;
+import com.example.model.projection.HabitDay;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface PracticeRepository extends JpaRepository<PracticeTracker, Long> {
-    List<PracticeTracker> findByDate(LocalDate date);
+    List<PracticeTracker> findByUserIdAndDate(Long userId, LocalDate date);
+    List<PracticeTracker> findByUserIdAndDateBetweenOrderByDateAscIdAsc(Long userId, LocalDate from, LocalDate to);
     List<PracticeTracker> findByUserId(Long userId);
+
+    /**
+     * Loads a practice only if it belongs to the user; a foreign practice looks the same as a missing one.
+     */
+    PracticeTracker findByIdAndUserId(Long practiceId, Long userId);
+
+    /**
+     * Bulk deletes of the practices of a habit, a category or a user: one statement, no entity is loaded.
+     */
+    @Modifying
+    @Query("delete from PracticeTracker p where p.habit.id = :habitId")
+    int deleteByHabitId(@Param("habitId") Long habitId);
+
+    @Modifying
+    @Query("delete from PracticeTracker p where p.habit.id in (select h.id from Habit h where h.category.id = :categoryId)")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query("delete from PracticeTracker p where p.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    long countByUserId(Long userId);
+
+    /**
+     * A chunk of a user's practice ids, for deletions split over several transactions.
+     */
+    @Query("select p.id from PracticeTracker p where p.user.id = :userId order by p.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from PracticeTracker p where p.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Dates on which the habit was done, without loading practice entities.
+     */
+    @Query("select p.date from PracticeTracker p where p.habit.id = :habitId and p.done = true")
+    List<LocalDate> findDoneDatesByHabitId(@Param("habitId") Long habitId);
+
+    /**
+     * Dates on which the habit has a practice, done or not.
+     */
+    @Query("select p.date from PracticeTracker p where p.habit.id = :habitId")
+    List<LocalDate> findDatesByHabitId(@Param("habitId") Long habitId);
+
+    /**
+     * Dates between from and to, both inclusive, on which the habit was done.
+     */
+    @Query("select p.date from PracticeTracker p where p.habit.id = :habitId and p.done = true and p.date between :from and :to")
+    List<LocalDate> findDoneDatesByHabitIdBetween(@Param("habitId") Long habitId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Habit and date of the practices of the given habits between from and to, both inclusive.
+     */
+    @Query("select p.habit.id as habitId, p.date as date from PracticeTracker p" +
+            " where p.habit.id in :habitIds and p.date between :from and :to")
+    List<HabitDay> findHabitDaysBetween(@Param("habitIds") Collection<Long> habitIds, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Habit and date of a user's done practices between from and to, both inclusive.
+     */
+    @Query("select p.habit.id as habitId, p.date as date from PracticeTracker p" +
+            " where p.user.id = :userId and p.done = true and p.date between :from and :to")
+    List<HabitDay> findDoneHabitDaysByUserIdBetween(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * First page of a user's practices, newest first. Pair with findPageByUserIdAfter for the following pages.
+     */
+    @Query("select p from PracticeTracker p where p.user.id = :userId order by p.date desc, p.id desc")
+    List<PracticeTracker> findFirstPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Page of a user's practices that come strictly after the (date, id) cursor in newest-first order.
+     */
+    @Query("select p from PracticeTracker p where p.user.id = :userId" +
+            " and (p.date < :date or (p.date = :date and p.id < :id))" +
+            " order by p.date desc, p.id desc")
+    List<PracticeTracker> findPageByUserIdAfter(@Param("userId") Long userId, @Param("date") LocalDate date,
+                                                @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Streams all of a user's practices, newest first, reading rows from the database as they are consumed.
+     * Must be called inside a transaction and the stream must be closed.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "256"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select p from PracticeTracker p where p.user.id = :userId order by p.date desc, p.id desc")
+    Stream<PracticeTracker> streamByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,36 @@
+package com.example.repository;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Gives Hibernate's second-level cache a JCache manager of its own in every application context.<br>
+ * The provider's default manager is shared by all contexts of the JVM, and Hibernate closes it when
+ * its session factory shuts down, which breaks every other context still using it, such as the
+ * cached contexts of a test run. The URI only has to be unique: Caffeine reads the region settings
+ * from application.conf for any URI that is not a file or classpath resource.
+ *
+ * @version 1.0.0
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager() {
+        return Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("urn:dailyrise:second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.repository;
+
+import com.example.model.SyncChange;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface SyncChangeRepository extends JpaRepository<SyncChange, Long> {
+    /**
+     * Streams the changes of a user with a revision in (since, upTo], in the order they were made.
+     * Must be called inside a transaction and the stream must be closed.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "256"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select c from SyncChange c where c.userId = :userId and c.revision > :since and c.revision <= :upTo" +
+            " order by c.revision, c.id")
+    Stream<SyncChange> streamByUserIdBetween(@Param("userId") Long userId, @Param("since") long since, @Param("upTo") long upTo);
+
+    @Modifying
+    @Query("delete from SyncChange c where c.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
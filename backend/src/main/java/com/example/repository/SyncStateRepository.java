@@ -0,0 +1,29 @@
+package com.example.repository;
+
+import com.example.model.SyncState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface SyncStateRepository extends JpaRepository<SyncState, Long> {
+    /**
+     * Increments the revision of a user in the database. The row stays locked until the transaction ends,
+     * so the writes of one user are numbered in commit order.
+     * @return 1 if the user has a sync state, 0 otherwise.
+     */
+    @Modifying
+    @Query("update SyncState s set s.revision = s.revision + 1, s.lastModified = :now where s.userId = :userId")
+    int increment(@Param("userId") Long userId, @Param("now") Instant now);
+
+    @Query("select s.revision from SyncState s where s.userId = :userId")
+    long findRevisionByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("delete from SyncState s where s.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
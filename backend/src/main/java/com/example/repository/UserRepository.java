@@ -1,14 +1,18 @@
 package com.example.repository;
 
 import com.example.model.User;
+import com.example.model.projection.UserCredentials;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  *  A Spring Data JPA repository for managing User entities.<br>
  *  It extends JpaRepository, which provides methods for basic CRUD operations.
  *
- * @version 1.1.0
+ * @version 1.4.0
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> { //Entity and primary key data type
@@ -19,4 +23,36 @@ public interface UserRepository extends JpaRepository<User, Long> { //Entity and
      *         null otherwise.
      */
     User findUserByEmailAddress(String emailAddress);
+
+    /**
+     * Loads only the id, email address and password hash of the user with given emailAddress.
+     * @param emailAddress
+     * @return The credentials if it finds a match,
+     *         null otherwise.
+     */
+    UserCredentials findCredentialsByEmailAddress(String emailAddress);
+
+    /**
+     * Loads only the email address of the user with given id, the subject of the user's JWTs.
+     * @param id
+     * @return The email address if it finds a match,
+     *         null otherwise.
+     */
+    @Query("select u.emailAddress from User u where u.id = :id")
+    String findEmailAddressById(@Param("id") Long id);
+
+    @Query("select u.profile.id from User u where u.id = :id")
+    Long findProfileIdById(@Param("id") Long id);
+
+    /**
+     * Bulk deletes of a user and of their profile, which no longer cascades once the user is not loaded.
+     * Everything referencing the user must be deleted first, the profile after the user.
+     */
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteUserById(@Param("id") Long id);
+
+    @Modifying
+    @Query("delete from Profile p where p.id = :profileId")
+    int deleteProfileById(@Param("profileId") Long profileId);
 }
@@ -0,0 +1,122 @@
+package com.example.security;
+
+import com.example.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A PasswordEncoder running every hash and match of its delegate on a dedicated, size-limited pool.
+ * <p>
+ * BCrypt is deliberately slow, so a login storm could otherwise use every CPU and every request thread.
+ * Here at most threads hashes run at once and at most queueCapacity wait; anything beyond that, or waiting
+ * longer than maxWaitMillis, fails fast with {@link TooManyRequestsException} (429) while check-ins keep their CPU.
+ * </p>
+ * @version 1.0.0
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitMillis;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * @param delegate The encoder doing the actual hashing, typically BCrypt.
+     * @param threads The number of hashes run at the same time.
+     * @param queueCapacity The number of hashes allowed to wait for a thread.
+     * @param maxWaitMillis How long a caller waits for its hash, queueing included, before giving up.
+     * @param meterRegistry Registry of the hashing and queue wait timers, rejections and queue depth.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long maxWaitMillis,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxWaitMillis = maxWaitMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = meterRegistry.timer("dailyrise.password.hashing", "operation", "encode");
+        this.matchesTimer = meterRegistry.timer("dailyrise.password.hashing", "operation", "matches");
+        this.queueWaitTimer = meterRegistry.timer("dailyrise.password.queue.wait");
+        this.rejectedCounter = meterRegistry.counter("dailyrise.password.rejected");
+        Gauge.builder("dailyrise.password.queue.size", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("dailyrise.password.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword); //only parses the hash prefix
+    }
+
+    /**
+     * Runs the task on the pool and waits for its result.
+     *
+     * @throws TooManyRequestsException If the queue is full or the result is not ready within maxWaitMillis.
+     */
+    private <T> T run(Timer hashTimer, Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new TooManyRequestsException("Too many authentication requests, retry shortly.");
+        }
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false); //drops it if still queued
+            rejectedCounter.increment();
+            throw new TooManyRequestsException("Too many authentication requests, retry shortly.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Stops the pool when the application context closes.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.security;
+
+import com.example.model.User;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Gives access to the user authenticated for the current request.
+ * <p>
+ * The authentication is held in SecurityContextHolder's thread-local, set by JwtRequestFilter on the thread
+ * serving the request, whether a platform or a virtual thread. Code that hands work to another thread
+ * (streaming response bodies, executors) must read the user before switching threads, or run the work through
+ * a DelegatingSecurityContext executor.
+ * </p>
+ * @version 1.0.0
+ */
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /**
+     * Extracts user information from context holder.
+     * @return The slim User of the principal: id, email address and password hash only.
+     * @throws AuthenticationCredentialsNotFoundException If no user is authenticated on this thread.
+     */
+    public static User get() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication(); //set by JwtRequestFilter
+        if (authentication == null || !(authentication.getPrincipal() instanceof MyUserDetails userDetails)) {
+            throw new AuthenticationCredentialsNotFoundException("No authenticated user on thread " + Thread.currentThread());
+        }
+        return userDetails.getUser();
+    }
+}
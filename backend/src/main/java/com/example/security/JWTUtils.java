@@ -1,10 +1,15 @@
 package com.example.security;
 
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
 import java.util.Date;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -12,8 +17,11 @@ import java.util.logging.Logger;
  * Service utility class for generating and validating JWT tokens.
  * Configuration values are sourced from application properties.<br>
  *
+ * The signing key and the parser are built once at startup and shared by all requests;
+ * recently verified tokens are kept in a small cache so repeated calls skip the HMAC check.<br>
+ *
  * <strong>Original Source:</strong> Todo App Project
- * @version 1.0.0
+ * @version 1.1.0
  */
 @Service
 public class JWTUtils {
@@ -36,6 +44,51 @@ public class JWTUtils {
     @Value("${jwt-expiration-ms}")
     private int jwtExpMS;
 
+    /**
+     * The maximum number of verified tokens kept in the claims cache.
+     */
+    @Value("${jwt-claims-cache.max-size:10000}")
+    private int claimsCacheMaxSize;
+
+    /**
+     * How long a verified token is trusted without re-checking its signature, in milliseconds.
+     * A cached token is never trusted past its own expiration.
+     */
+    @Value("${jwt-claims-cache.ttl-ms:300000}")
+    private long claimsCacheTtlMS;
+
+    /**
+     * The HMAC-SHA256 key decoded from jwtSecret.
+     */
+    private SecretKey signingKey;
+
+    /**
+     * Immutable, thread-safe parser shared by every verification.
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * Recently verified tokens mapped to their claims.
+     */
+    private ExpiringCache<String, Claims> claimsCache;
+
+    /**
+     * Builds the signing key, the parser and the claims cache once the properties are injected.
+     */
+    @PostConstruct
+    public void init() {
+        signingKey = new SecretKeySpec(Decoders.BASE64.decode(jwtSecret), SignatureAlgorithm.HS256.getJcaName());
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        claimsCache = new ExpiringCache<>(claimsCacheTtlMS, claimsCacheMaxSize);
+    }
+
+    /**
+     * @return The cache of verified claims, exposed for its hit and miss statistics.
+     */
+    public ExpiringCache<String, Claims> getClaimsCache() {
+        return claimsCache;
+    }
+
     /**
      * Generates an encoded JWT token based on the provided user session details only when the user logs in.
      * <p>
@@ -50,49 +103,66 @@ public class JWTUtils {
                 .setSubject(myUserDetails.getUsername()) // just the email address
                 .setIssuedAt(new Date()) // sets it with today's date
                 .setExpiration(new Date(new Date().getTime() + jwtExpMS)) // adds expiration to today's date
-                .signWith(SignatureAlgorithm.HS256, jwtSecret) //header and secret info
+                .signWith(signingKey, SignatureAlgorithm.HS256) //header and secret info
                 .compact();
     }
 
+    /**
+     * Verifies the provided JWT token once and returns its claims.
+     * <p>
+     * This method is intended to be used for every single request. A token that was verified recently
+     * is answered from the claims cache, as long as it has not expired in the meantime.
+     * </p>
+     * @param token The JWT token.
+     * @return The verified claims,
+     *         or an empty Optional if the token is invalid or expired.
+     */
+    public Optional<Claims> verifyJwtToken(String token) {
+        Claims cached = claimsCache.get(token);
+        if (cached != null && (cached.getExpiration() == null || cached.getExpiration().after(new Date()))) {
+            return Optional.of(cached);
+        }
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody(); //validates the token and decodes the body
+            long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+            claimsCache.put(token, claims, expiresAt);
+            return Optional.of(claims);
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            logger.log(Level.SEVERE, "Invalid JWT signature: {0}", e.getMessage());
+        } catch (MalformedJwtException e) {
+            logger.log(Level.SEVERE, "Invalid JWT token: {0}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            logger.log(Level.SEVERE, "JWT token is expired: {0}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            logger.log(Level.SEVERE, "JWT token is unsupported: {0}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.log(Level.SEVERE, "JWT claims string is empty: {0}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+
     /**
      * Retrieves the username from the provided JWT token.
      * <p>
-     * This method is intended to be used for every single request to authenticate the user.
+     * Prefer {@link #verifyJwtToken(String)}, which validates the token and returns all claims in one pass.
      * </p>
      * @param token The JWT token.
-     * @return The username.
+     * @return The username,
+     *         or null if the token is invalid.
      */
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(jwtSecret).build()
-                .parseClaimsJws(token).getBody().getSubject();
+        return verifyJwtToken(token).map(Claims::getSubject).orElse(null);
     }
 
     /**
      * Validates the provided JWT token.
      * <p>
-     * This method is intended to be used for every single request.
+     * Prefer {@link #verifyJwtToken(String)}, which validates the token and returns all claims in one pass.
      * </p>
      * @param authToken The JWT token to validate.
      * @return A boolean indicating whether the token is valid or not.
      */
     public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parser() // so I can handle the token structure
-                    .setSigningKey(jwtSecret) // passes the secret key to "unlock" token
-                    .parseClaimsJws(authToken); //validates the token
-            return true;
-        } catch (SecurityException e) {
-            logger.log(Level.SEVERE, "Invalid JWT signature: {}", e.getMessage());
-        } catch (MalformedJwtException e) {
-            logger.log(Level.SEVERE, "Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            logger.log(Level.SEVERE, "JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            logger.log(Level.SEVERE, "JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            logger.log(Level.SEVERE, "JWT claims string is empty: {}", e.getMessage());
-        }
-        return false;
+        return verifyJwtToken(authToken).isPresent();
     }
 }
-
@@ -1,5 +1,8 @@
 package com.example.security;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -14,6 +17,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Optional;
 import java.util.logging.Logger;
 
 /**
@@ -37,6 +41,10 @@ public class JwtRequestFilter extends OncePerRequestFilter {
      * Utility for generating and validating JWT tokens.
      */
     private JWTUtils jwtUtils;
+    /**
+     * Registry of the JWT verification and principal loading timers.
+     */
+    private MeterRegistry meterRegistry;
 
     /**
      * Injects dependency with session manager.
@@ -56,6 +64,15 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         this.jwtUtils = jwtUtils;
     }
 
+    /**
+     * Injects the meter registry.
+     * @param meterRegistry The registry the timers are recorded in.
+     */
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     /**
      * Extracts the JWT token from the Authorization header of the given HTTP request.
      * The token should start with "Bearer ".
@@ -85,9 +102,17 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         try{
             String jwt = parseJwt(request); //Invokes the Jwt parser and parses the request
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)){
-                String username = jwtUtils.getUserNameFromJwtToken(jwt); //gets email address
+            Optional<Claims> claims = Optional.empty();
+            if (jwt != null){
+                Timer.Sample verification = Timer.start(meterRegistry);
+                claims = jwtUtils.verifyJwtToken(jwt); //verifies the token once
+                verification.stop(meterRegistry.timer("dailyrise.jwt.verification", "valid", String.valueOf(claims.isPresent())));
+            }
+            if (claims.isPresent()){
+                String username = claims.get().getSubject(); //gets email address
+                Timer.Sample principalLoading = Timer.start(meterRegistry);
                 UserDetails userDetails = this.myUserDetailsService.loadUserByUsername(username); // gets the user's session information
+                principalLoading.stop(meterRegistry.timer("dailyrise.principal.loading"));
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()); //checks credentials
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request)); // this request is valid
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken); // grants access to the resource
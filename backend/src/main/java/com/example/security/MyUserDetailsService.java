@@ -1,6 +1,7 @@
 package com.example.security;
 
 import com.example.model.User;
+import com.example.model.projection.UserCredentials;
 import com.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,11 +13,12 @@ import org.springframework.stereotype.Service;
  * Responsible for loading user-specific data during the authentication process. <br>
  * It implements the UserDetailsService interface from Spring Security.
  *
- * @version 1.0.0
+ * @version 1.2.0
  */
 @Service
 public class MyUserDetailsService implements UserDetailsService {
     private UserService userService;
+    private PrincipalCache principalCache;
 
     /**
      * Injects dependency with userService and allows to use its resources.
@@ -27,16 +29,38 @@ public class MyUserDetailsService implements UserDetailsService {
         this.userService = userService;
     }
 
+    /**
+     * Injects the cache holding recently authenticated principals.
+     * @param principalCache The principal cache.
+     */
+    @Autowired
+    public void setPrincipalCache(PrincipalCache principalCache) {
+        this.principalCache = principalCache;
+    }
+
     /**
      * Loads a user's data based on their email address and constructs a new MyUserDetails instance.
-     *
+     * <p>
+     * Principals are served from the principal cache when possible, so the database is only hit on a miss.
+     * </p>
      * @param username The email address of the user to be loaded.
      * @return A new instance of MyUserDetails containing user details.
      * @throws UsernameNotFoundException if the user with the given email address is not found.
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userService.findUserByEmailAddress(username); //emailAddress
-        return new MyUserDetails(user);
+        MyUserDetails cached = principalCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        UserCredentials credentials = userService.findUserCredentialsByEmailAddress(username); //emailAddress
+        if (credentials == null) {
+            throw new UsernameNotFoundException("user with email address " + username + " not found.");
+        }
+        //a detached User holding only id, email and password hash; it never loads profile or collections
+        User user = new User(credentials.getId(), credentials.getEmailAddress(), credentials.getPassword());
+        MyUserDetails userDetails = new MyUserDetails(user);
+        principalCache.put(username, userDetails);
+        return userDetails;
     }
 }
@@ -0,0 +1,63 @@
+package com.example.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches authenticated principals by JWT subject (the email address).<br>
+ * Only a slim copy of the user is kept, so a cache hit never touches the database and
+ * a cached entry does not pin the user's categories, habits or practices in memory.
+ *
+ * @version 1.0.0
+ */
+@Component
+public class PrincipalCache {
+    private final ExpiringCache<String, MyUserDetails> cache;
+
+    /**
+     * @param ttlMillis How long a principal stays cached, populated from principal-cache.ttl-ms.
+     * @param maxSize The maximum number of cached principals, populated from principal-cache.max-size.
+     */
+    public PrincipalCache(@Value("${principal-cache.ttl-ms:60000}") long ttlMillis,
+                          @Value("${principal-cache.max-size:10000}") int maxSize) {
+        this.cache = new ExpiringCache<>(ttlMillis, maxSize);
+    }
+
+    /**
+     * @param subject The email address of the user.
+     * @return The cached principal, or null on a miss.
+     */
+    public MyUserDetails get(String subject) {
+        return cache.get(subject);
+    }
+
+    public void put(String subject, MyUserDetails principal) {
+        cache.put(subject, principal);
+    }
+
+    /**
+     * Drops the cached principal of the given user, so the next request reloads it.
+     * Must be called whenever data held by the principal changes.
+     *
+     * @param subject The email address of the user.
+     */
+    public void invalidate(String subject) {
+        cache.invalidate(subject);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long hitCount() {
+        return cache.hitCount();
+    }
+
+    public long missCount() {
+        return cache.missCount();
+    }
+
+    public long evictionCount() {
+        return cache.evictionCount();
+    }
+}
@@ -1,61 +1,89 @@
 package com.example.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
 /**
  * Responsible to configure security settings for the application.<br>
  * This class contains beans and configuration settings related to authentication and authorization.
  *
- * @version 1.2.0
+ * @version 1.6.0
  */
 @Configuration
-@EnableGlobalMethodSecurity(prePostEnabled = true)
+@EnableMethodSecurity
 public class SecurityConfiguration {
     /**
-     * Creates and returns a BCryptPasswordEncoder object.
+     * Creates the password encoder: BCrypt with a configurable cost, run on a bounded hashing pool.
      *
-     * @return BCryptPasswordEncoder
+     * @param strength The BCrypt cost (log2 rounds), from password-hashing.bcrypt-strength; existing hashes keep their own cost.
+     * @param threads The number of concurrent hashes, from password-hashing.threads; 0 uses half the processors.
+     * @param queueCapacity The number of waiting hashes, from password-hashing.queue-capacity.
+     * @param maxWaitMillis How long a request waits for its hash, from password-hashing.max-wait-ms.
+     * @param meterRegistry Registry of the hashing metrics.
+     * @return BoundedPasswordEncoder
      */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
-    }
-
-    @Bean
-    public JwtRequestFilter authJwtRequestFilter(){
-        return new JwtRequestFilter();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${password-hashing.bcrypt-strength:10}") int strength,
+                                                  @Value("${password-hashing.threads:0}") int threads,
+                                                  @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+                                                  @Value("${password-hashing.max-wait-ms:5000}") long maxWaitMillis,
+                                                  MeterRegistry meterRegistry){
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, maxWaitMillis, meterRegistry);
     }
 
     /**
      * Configures and returns a SecurityFilterChain based on the provided HttpSecurity object.
      *
      * @param http HttpSecurity object used for configuration.
+     * @param jwtRequestFilter The JWT filter component, added to the chain so it runs once per request.
      * @return SecurityFilterChain
      * @throws Exception if an error occurs during configuration.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtRequestFilter jwtRequestFilter) throws Exception {
         //policies on every request:
-        http.authorizeRequests().antMatchers("/auth/users", "/auth/users/login/", "/auth/users/register/").permitAll() //public end-points
-                .antMatchers("/h2-console/**").permitAll() //access to database
-                .anyRequest().authenticated()
-                .and().sessionManagement()
-                .sessionCreationPolicy(SessionCreationPolicy.STATELESS) //every time will check for jwt token, not session based.
-                .and().csrf().disable()
-                .headers().frameOptions().disable();
-        http.addFilterBefore(authJwtRequestFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.authorizeHttpRequests(authorize -> authorize
+                        .requestMatchers(antMatcher("/auth/users"), antMatcher("/auth/users/login/"), antMatcher("/auth/users/register/"),
+                                antMatcher("/auth/users/refresh/"), antMatcher("/auth/users/logout/")).permitAll() //public end-points
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll() //streams and SSE, authorized on the initial dispatch
+                        .requestMatchers(antMatcher("/h2-console/**")).permitAll() //access to database
+                        .requestMatchers(antMatcher("/actuator/health")).permitAll() //probes; the metrics endpoints need a token like the API
+                        .anyRequest().authenticated())
+                .sessionManagement(session -> session
+                        .sessionCreationPolicy(SessionCreationPolicy.STATELESS)) //every time will check for jwt token, not session based.
+                .csrf(csrf -> csrf.disable())
+                .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
+        http.addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
 
+    /**
+     * Carries the submitting thread's security context into tasks run by the application task executor,
+     * on platform and virtual threads alike, so that async work sees the same authenticated user.
+     *
+     * @return TaskDecorator applied by Spring Boot to the auto-configured task executors.
+     */
+    @Bean
+    public TaskDecorator securityContextTaskDecorator() {
+        return DelegatingSecurityContextRunnable::new;
+    }
+
     /**
      * Creates and returns an AuthenticationManager based on the provided AuthenticationConfiguration.
      *
@@ -22,19 +22,23 @@ public class SeedData implements CommandLineRunner {
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
     private final HabitRepository habitRepository;
+    private final SyntheticDataGenerator syntheticDataGenerator;
     @Autowired
     public SeedData(@Lazy PasswordEncoder passwordEncoder, //loads on-demand
                     UserRepository userRepository,
                     CategoryRepository categoryRepository,
-                    HabitRepository habitRepository){
+                    HabitRepository habitRepository,
+                    SyntheticDataGenerator syntheticDataGenerator){
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
         this.habitRepository = habitRepository;
+        this.syntheticDataGenerator = syntheticDataGenerator;
     }
 
     /**
-     * Everytime the application starts, this method will be invoked
+     * Everytime the application starts, this method will be invoked.
+     * Inserts the two demo users, then the synthetic users if seed.synthetic.users is set.
      * @param args
      * @throws Exception
      */
@@ -81,6 +85,10 @@ public class SeedData implements CommandLineRunner {
         habit1.setCategory(category1);
         habit1.setUser(user2);
         habitRepository.save(habit1);
+
+        if (syntheticDataGenerator.isEnabled()) {
+            syntheticDataGenerator.generate();
+        }
     }
 
 }
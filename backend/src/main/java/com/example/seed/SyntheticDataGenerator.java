@@ -0,0 +1,221 @@
+package com.example.seed;
+
+import com.example.service.DayBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates synthetic users with categories, habits and years of daily practices, for load tests.
+ * <p>
+ * Rows are written with plain JDBC: users, categories and habits one by one to get their ids back,
+ * practices and habit summaries in batches. Users are generated in parallel, each by one task.
+ * Synthetic users are named user{n}@synthetic.dailyrise and share the configured password.
+ * Practices cover the days before today, so that today is left free for check-ins.
+ * </p>
+ * @version 1.1.0
+ */
+@Component
+public class SyntheticDataGenerator {
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    Logger logger = Logger.getLogger(SyntheticDataGenerator.class.getName());
+
+    /**
+     * The number of users to generate, 0 to disable the generator.
+     */
+    @Value("${seed.synthetic.users:0}")
+    private int users;
+
+    @Value("${seed.synthetic.categories-per-user:3}")
+    private int categoriesPerUser;
+
+    @Value("${seed.synthetic.habits-per-category:3}")
+    private int habitsPerCategory;
+
+    /**
+     * The number of days of practice history of every habit.
+     */
+    @Value("${seed.synthetic.days:365}")
+    private int days;
+
+    /**
+     * The probability that a practice is marked as done.
+     */
+    @Value("${seed.synthetic.done-ratio:0.7}")
+    private double doneRatio;
+
+    @Value("${seed.synthetic.password:password}")
+    private String password;
+
+    @Value("${seed.synthetic.parallelism:4}")
+    private int parallelism;
+
+    @Value("${seed.synthetic.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Seed of the random generator, so that runs with the same settings produce the same data.
+     */
+    @Value("${seed.synthetic.random-seed:42}")
+    private long randomSeed;
+
+    /**
+     * @param jdbcTemplate Used for all inserts.
+     * @param passwordEncoder Hashes the shared password once.
+     */
+    @Autowired
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, @Lazy PasswordEncoder passwordEncoder) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public boolean isEnabled() {
+        return users > 0;
+    }
+
+    /**
+     * @return The email address of the synthetic user with the given index, from 0.
+     */
+    public static String emailAddress(int user) {
+        return "user" + user + "@synthetic.dailyrise";
+    }
+
+    /**
+     * Generates the configured users and their data.
+     *
+     * @return The number of practices inserted.
+     */
+    public long generate() {
+        long start = System.nanoTime();
+        String passwordHash = passwordEncoder.encode(password);
+        LocalDate today = LocalDate.now();
+        LongAdder practices = new LongAdder();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int user = 0; user < users; user++) {
+                int index = user;
+                futures.add(executor.submit(() -> practices.add(generateUser(index, passwordHash, today))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Synthetic data generation interrupted", e);
+        } catch (ExecutionException e) {
+            logger.log(Level.SEVERE, "Synthetic data generation failed", e.getCause());
+            throw new IllegalStateException("Synthetic data generation failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+        logger.info(String.format("Generated %d users, %d habits and %d practices in %.1f s (%.0f practices/s)",
+                users, users * categoriesPerUser * habitsPerCategory, practices.sum(), seconds, practices.sum() / seconds));
+        return practices.sum();
+    }
+
+    /**
+     * Inserts one user with its profile, categories, habits, practices and habit summaries.
+     *
+     * @return The number of practices inserted.
+     */
+    private long generateUser(int index, String passwordHash, LocalDate today) {
+        SplittableRandom random = new SplittableRandom(randomSeed + index);
+        long profileId = insert("insert into profiles (first_name, last_name, bio) values (?, ?, ?)",
+                "User", String.valueOf(index), null);
+        long userId = insert("insert into users (email_address, password, profile_id) values (?, ?, ?)",
+                emailAddress(index), passwordHash, profileId);
+        jdbcTemplate.update("insert into sync_states (user_id, revision, last_modified) values (?, 0, ?)",
+                userId, Timestamp.from(Instant.now()));
+        long inserted = 0;
+        for (int c = 0; c < categoriesPerUser; c++) {
+            long categoryId = insert("insert into categories (name, description, version, user_id) values (?, ?, 0, ?)",
+                    "Category " + c, "Synthetic category", userId);
+            for (int h = 0; h < habitsPerCategory; h++) {
+                long habitId = insert("insert into habits (name, trigger, outcome, routine, version, user_id, category_id) values (?, ?, ?, ?, 0, ?, ?)",
+                        "Habit " + c + "." + h, "Trigger", "Outcome", "Every day", userId, categoryId);
+                inserted += insertPractices(habitId, userId, today, random);
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Inserts one practice per day before today, in batches, and the summary of the habit.
+     */
+    private long insertPractices(long habitId, long userId, LocalDate today, SplittableRandom random) {
+        if (days < 1) {
+            jdbcTemplate.update("insert into habit_summaries (habit_id, current_streak, longest_streak, last_done_date, total_done)" +
+                    " values (?, 0, 0, null, 0)", habitId);
+            return 0;
+        }
+        LocalDate first = today.minusDays(days);
+        DayBitmap doneDays = new DayBitmap(first, today.minusDays(1));
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (LocalDate day = first; day.isBefore(today); day = day.plusDays(1)) {
+            boolean done = random.nextDouble() < doneRatio;
+            if (done) {
+                doneDays.set(day);
+            }
+            batch.add(new Object[] {done, Date.valueOf(day), habitId, userId});
+            if (batch.size() == batchSize) {
+                insertPracticeBatch(batch);
+            }
+        }
+        insertPracticeBatch(batch);
+        LocalDate lastDoneDate = doneDays.lastSetDay();
+        jdbcTemplate.update("insert into habit_summaries (habit_id, current_streak, longest_streak, last_done_date, total_done)" +
+                        " values (?, ?, ?, ?, ?)", habitId,
+                lastDoneDate != null ? doneDays.runEndingAt(lastDoneDate) : 0,
+                doneDays.longestRun(),
+                lastDoneDate != null ? Date.valueOf(lastDoneDate) : null,
+                doneDays.cardinality());
+        return days;
+    }
+
+    private void insertPracticeBatch(List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("insert into practices (id, done, date, version, habit_id, user_id)" +
+                    " values (next value for practices_seq, ?, ?, 0, ?, ?)", batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Inserts one row and returns its generated id.
+     */
+    private long insert(String sql, Object... values) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, new String[] {"id"});
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.service;
+
+import com.example.exception.InformationNotFoundException;
+import com.example.repository.CategoryRepository;
+import com.example.repository.HabitRepository;
+import com.example.repository.HabitSummaryRepository;
+import com.example.repository.PracticeRepository;
+import com.example.repository.RefreshTokenRepository;
+import com.example.repository.SyncChangeRepository;
+import com.example.repository.SyncStateRepository;
+import com.example.repository.UserRepository;
+import com.example.security.PrincipalCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Service class removing a user together with everything they own.
+ * <p>
+ * Every table is cleared with one bulk delete by user id, children before parents, in a single transaction.
+ * No entity is loaded, so the cost is one statement per table rather than one per row.
+ * The user's change log goes as well: there is no client left to sync.
+ * A heavy user is deleted by the account deletion job, which first removes the practices with
+ * {@link #deletePracticeChunk} in transactions of bounded size, then calls {@link #deleteAccount} for the rest.
+ * </p>
+ * @version 1.1.1
+ */
+@Service
+public class AccountService {
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final HabitRepository habitRepository;
+    private final HabitSummaryRepository habitSummaryRepository;
+    private final PracticeRepository practiceRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SyncStateRepository syncStateRepository;
+    private final SyncChangeRepository syncChangeRepository;
+    private final PrincipalCache principalCache;
+    Logger logger = Logger.getLogger(AccountService.class.getName());
+
+    /**
+     * Injects dependencies and enables accountService to access resources.
+     *
+     * @param userRepository Deletes the user and their profile.
+     * @param categoryRepository Deletes the user's categories.
+     * @param habitRepository Deletes the user's habits.
+     * @param habitSummaryRepository Deletes the summaries of the user's habits.
+     * @param practiceRepository Deletes the user's practices.
+     * @param refreshTokenRepository Deletes the user's refresh tokens.
+     * @param syncStateRepository Deletes the user's sync state.
+     * @param syncChangeRepository Deletes the user's change log.
+     * @param principalCache Forgets the user's cached principal.
+     */
+    @Autowired
+    public AccountService(UserRepository userRepository, CategoryRepository categoryRepository, HabitRepository habitRepository,
+                          HabitSummaryRepository habitSummaryRepository, PracticeRepository practiceRepository,
+                          RefreshTokenRepository refreshTokenRepository, SyncStateRepository syncStateRepository,
+                          SyncChangeRepository syncChangeRepository, PrincipalCache principalCache) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.habitRepository = habitRepository;
+        this.habitSummaryRepository = habitSummaryRepository;
+        this.practiceRepository = practiceRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.syncChangeRepository = syncChangeRepository;
+        this.principalCache = principalCache;
+    }
+
+    /**
+     * Deletes up to chunkSize practices of a user, in their own transaction.
+     *
+     * @param userId The user being deleted.
+     * @param chunkSize The most practices to delete.
+     * @return The number of practices deleted, 0 once there are none left.
+     */
+    @Transactional
+    public int deletePracticeChunk(Long userId, int chunkSize) {
+        List<Long> practiceIds = practiceRepository.findIdsByUserId(userId, PageRequest.ofSize(chunkSize));
+        return practiceIds.isEmpty() ? 0 : practiceRepository.deleteByIdIn(practiceIds);
+    }
+
+    /**
+     * Deletes a user with their profile, categories, habits, practices, summaries, tokens and sync data.
+     * Access tokens already issued are rejected from then on, since their subject no longer exists;
+     * the cached principal is dropped once the deletion has committed.
+     *
+     * @param userId The user to delete.
+     * @throws InformationNotFoundException If the user does not exist.
+     */
+    @Transactional
+    public void deleteAccount(Long userId) {
+        String emailAddress = userRepository.findEmailAddressById(userId);
+        if (emailAddress == null) {
+            throw new InformationNotFoundException("User with id " + userId + " not found.");
+        }
+        Long profileId = userRepository.findProfileIdById(userId);
+        habitSummaryRepository.deleteByUserId(userId);
+        int practices = practiceRepository.deleteByUserId(userId);
+        habitRepository.deleteByUserId(userId);
+        categoryRepository.deleteByUserId(userId);
+        refreshTokenRepository.deleteByUserId(userId);
+        syncChangeRepository.deleteByUserId(userId);
+        syncStateRepository.deleteByUserId(userId);
+        userRepository.deleteUserById(userId);
+        if (profileId != null) {
+            userRepository.deleteProfileById(profileId);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() { //invalidated earlier, a concurrent request could cache the still-visible user again
+                principalCache.invalidate(emailAddress);
+            }
+        });
+        logger.info("Deleted user " + userId + " with " + practices + " practice(s)");
+    }
+}
@@ -2,66 +2,99 @@ package com.example.service;
 
 import com.example.exception.InformationExistException;
 import com.example.exception.InformationNotFoundException;
+import com.example.exception.InvalidRequestException;
+import com.example.exception.VersionConflictException;
 import com.example.model.Category;
 import com.example.model.Habit;
+import com.example.model.SyncChange;
 import com.example.model.User;
+import com.example.model.response.CursorPage;
 import com.example.repository.CategoryRepository;
 import com.example.repository.HabitRepository;
-import com.example.security.MyUserDetails;
+import com.example.repository.PracticeRepository;
+import com.example.security.CurrentUser;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
  * Represents the Category Service, responsible for handling business logic related to categories.<br>
  * This class serves as an intermediary between the controller and the category repository,
  * invoking the repository to perform CRUD operations on categories.<br>
+ * Every write records a change in the user's sync state and change log, which drive conditional GETs and delta syncs.<br>
  * Note: Imported and refactored from todo project
- * @version 1.2.0
+ * @version 1.7.0
  */
 @Service
+@Timed(value = "dailyrise.service", description = "Time spent in each service method")
 public class CategoryService {
+    /**
+     * The properties of a habit that can be changed through updateHabit.
+     */
+    public static final PatchApplier<Habit> HABIT_PATCH = PatchApplier.<Habit>builder()
+            .string("name", Habit::getName, Habit::setName, true)
+            .string("trigger", Habit::getTrigger, Habit::setTrigger, false)
+            .string("outcome", Habit::getOutcome, Habit::setOutcome, false)
+            .string("routine", Habit::getRoutine, Habit::setRoutine, false)
+            .readOnly("id", "practiceTrackerList")
+            .build();
+
     private final CategoryRepository categoryRepository;
     private final HabitRepository habitRepository;
+    private final PracticeRepository practiceRepository;
+    private final HabitSummaryService habitSummaryService;
+    private final SyncStateService syncStateService;
 
     /**
      * Injects a CategoryRepository dependency automatically.
      * And enables the service to access the repository's interface methods.
      * @param categoryRepository The repository for category-related CRUD operations.
+     * @param habitRepository The repository for habit-related CRUD operations.
+     * @param practiceRepository Bulk-deletes the practices of deleted habits and categories.
+     * @param habitSummaryService Service maintaining the habit summaries.
+     * @param syncStateService Service recording every change of the user's collections.
      */
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository, HabitRepository habitRepository) {
+    public CategoryService(CategoryRepository categoryRepository, HabitRepository habitRepository,
+                           PracticeRepository practiceRepository, HabitSummaryService habitSummaryService,
+                           SyncStateService syncStateService) {
         this.categoryRepository = categoryRepository;
         this.habitRepository = habitRepository;
-    }
-
-    /**
-     * Extracts usr information from context holder
-     * @return User object
-     */
-    public static User getCurrentLoggedInUser(){
-        MyUserDetails userDetails = (MyUserDetails) SecurityContextHolder //After jwt is generated, Security Context Holder is created to hold the user's state
-                .getContext().getAuthentication().getPrincipal(); // the entire User object, with authentication details
-        return userDetails.getUser();
+        this.practiceRepository = practiceRepository;
+        this.habitSummaryService = habitSummaryService;
+        this.syncStateService = syncStateService;
     }
 
     /**
      * Creates a Category and saves it in the database.
+     * <p>
+     * The name is not looked up first: the (user_id, name) unique constraint rejects a duplicate in the insert itself,
+     * which also holds when two requests create the same category at once.
+     * </p>
      * @param category The Category object.
      * @return The category recently created.
      * @throws InformationExistException if Category already exists.
      */
+    @Transactional
     public Category createCategory(Category category) {
-        Optional<Category> categoryOptional = Optional.ofNullable(categoryRepository.findByNameAndUserId(category.getName(), getCurrentLoggedInUser().getId()));
-        if (categoryOptional.isPresent()) {
+        category.setUser(CurrentUser.get());
+        try {
+            Category savedCategory = categoryRepository.saveAndFlush(category);
+            syncStateService.recordChange(savedCategory.getUser().getId(), SyncChange.EntityType.CATEGORY, savedCategory.getId(), false);
+            return savedCategory;
+        } catch (DataIntegrityViolationException e){
             throw new InformationExistException("Category with name " + category.getName() + " already exists.");
-        } else {
-            category.setUser(getCurrentLoggedInUser());
-            return categoryRepository.save(category);
         }
     }
 
@@ -73,7 +106,7 @@ public class CategoryService {
      * @throws InformationNotFoundException if the category is not found.
      */
     public Optional<Category> getCategory(Long categoryId){
-        Optional<Category> categoryOptional = Optional.of(categoryRepository.findByIdAndUserId(categoryId, CategoryService.getCurrentLoggedInUser().getId()));
+        Optional<Category> categoryOptional = Optional.ofNullable(categoryRepository.findWithHabitsByIdAndUserId(categoryId, CurrentUser.get().getId()));
         if (categoryOptional.isPresent()){
             return categoryOptional;
         } else {
@@ -86,8 +119,8 @@ public class CategoryService {
      * @return A list of all Categories stored in the database.
      */
     public List<Category> getAllCategories() {
-        User user = getCurrentLoggedInUser();
-        List<Category> categoryList = user.getCategoryList();
+        User user = CurrentUser.get();
+        List<Category> categoryList = categoryRepository.findByUserId(user.getId()); //the principal does not carry collections
         if (categoryList.isEmpty()){
             throw new InformationNotFoundException("No categories found for User id " + user.getId());
         }
@@ -102,9 +135,12 @@ public class CategoryService {
      * @return The updated Category.
      * @throws InformationExistException If the updated properties are the same as those in the database.
      * @throws InformationNotFoundException If a category with the given categoryId is not found.
+     * @throws InformationExistException If the user already has another category with the new name.
+     * @throws VersionConflictException If the category was changed concurrently.
      */
+    @Transactional
     public Category updateCategory(Long categoryId, Category category){
-        Optional<Category> categoryOptional = Optional.ofNullable(categoryRepository.findByIdAndUserId(categoryId, getCurrentLoggedInUser().getId()));
+        Optional<Category> categoryOptional = Optional.ofNullable(categoryRepository.findByIdAndUserId(categoryId, CurrentUser.get().getId()));
         if (categoryOptional.isPresent()){ // Category found in db
             if (category.getName() != null && category.getName().equals(categoryOptional.get().getName()) &&
                     category.getDescription() != null && category.getDescription().equals(categoryOptional.get().getDescription())){
@@ -118,17 +154,46 @@ public class CategoryService {
                 if (category.getDescription() != null && !String.valueOf(categoryOptional.get().getDescription()).equals(category.getDescription())){
                     categoryOptional.get().setDescription(category.getDescription());
                 }
-                return categoryRepository.save(categoryOptional.get());
+                try {
+                    Category savedCategory = categoryRepository.saveAndFlush(categoryOptional.get());
+                    syncStateService.recordChange(savedCategory.getUser().getId(), SyncChange.EntityType.CATEGORY, categoryId, false);
+                    return savedCategory;
+                } catch (ObjectOptimisticLockingFailureException e){
+                    throw new VersionConflictException("Category with id " + categoryId + " was changed concurrently.");
+                } catch (DataIntegrityViolationException e){
+                    throw new InformationExistException("Category with name " + category.getName() + " already exists.");
+                }
             }
         } else {
             throw new InformationNotFoundException("Category with id " + categoryId + " not found.");
         }
     }
 
+    /**
+     * Deletes a category with its habits and their practices.
+     * <p>
+     * Children are removed with one bulk delete per table instead of loading and removing every entity,
+     * so the number of statements does not grow with the practice history.
+     * </p>
+     * @param categoryId The unique Category Id.
+     * @return The deleted Category, with an empty habit list.
+     * @throws InformationNotFoundException If the category is not found.
+     */
+    @Transactional
     public Optional<Category> deleteCategory(Long categoryId){
-        Optional<Category> categoryOptional = Optional.ofNullable(categoryRepository.findByIdAndUserId(categoryId, getCurrentLoggedInUser().getId()));
+        Optional<Category> categoryOptional = Optional.ofNullable(categoryRepository.findByIdAndUserId(categoryId, CurrentUser.get().getId()));
         if (categoryOptional.isPresent()){
-            categoryRepository.deleteById(categoryId);
+            Long userId = categoryOptional.get().getUser().getId();
+            List<Long> habitIds = habitRepository.findIdsByCategoryId(categoryId);
+            habitSummaryService.deleteSummariesOfCategory(categoryId);
+            practiceRepository.deleteByCategoryId(categoryId);
+            habitRepository.deleteByCategoryId(categoryId);
+            categoryRepository.delete(categoryOptional.get());
+            categoryOptional.get().setHabitList(new ArrayList<>()); //deleted in bulk; the lazy list must not reach the response
+            if (!habitIds.isEmpty()){
+                syncStateService.recordChanges(userId, SyncChange.EntityType.HABIT, habitIds, true);
+            }
+            syncStateService.recordChange(userId, SyncChange.EntityType.CATEGORY, categoryId, true);
             return categoryOptional;
         } else {
             throw new InformationNotFoundException("Category with id " + categoryId + " not found.");
@@ -138,24 +203,31 @@ public class CategoryService {
     //--------------------------- Habit related ---------------------------
     /**
      * Creates and saves a Habit associated with the specified category and current user.
-     *
+     * <p>
+     * Like categories, habit names are unique per user through the (user_id, name) unique constraint,
+     * so a duplicate is rejected by the insert instead of a lookup before it.
+     * </p>
      * @param categoryId Category's unique ID.
      * @param habit Habit object to be created.
      * @return Recently created habit.
      * @throws InformationNotFoundException If the category is not found.
      * @throws InformationExistException If a habit with the same name already exists.
      */
+    @Transactional
     public Habit createCategoryHabit(Long categoryId, Habit habit){
-        Optional<Category> categoryOptional = Optional.ofNullable(categoryRepository.findByIdAndUserId(categoryId, getCurrentLoggedInUser().getId()));
+        Optional<Category> categoryOptional = Optional.ofNullable(categoryRepository.findByIdAndUserId(categoryId, CurrentUser.get().getId()));
         if (categoryOptional.isPresent()) {
-            Optional<Habit> habitOptional = Optional.ofNullable(habitRepository.findByName(habit.getName()));
-            if (habitOptional.isEmpty()) {
-                habit.setCategory(categoryOptional.get());
-                habit.setUser(getCurrentLoggedInUser());
-                return habitRepository.save(habit);
-            } else {
+            habit.setCategory(categoryOptional.get());
+            habit.setUser(CurrentUser.get());
+            Habit savedHabit;
+            try {
+                savedHabit = habitRepository.saveAndFlush(habit);
+            } catch (DataIntegrityViolationException e){
                 throw new InformationExistException("Habit " + habit.getName() + " already exists.");
             }
+            habitSummaryService.createSummary(savedHabit.getId());
+            syncStateService.recordChange(savedHabit.getUser().getId(), SyncChange.EntityType.HABIT, savedHabit.getId(), false);
+            return savedHabit;
         } else {
             throw new InformationNotFoundException("Category with id " + categoryId + " not found.");
         }
@@ -163,33 +235,30 @@ public class CategoryService {
 
     /**
      * Retrieves a habit by its ID, associated with the given category and current user.
+     * The habit and its practices are loaded in one query; the category is not loaded.
      *
      * @param categoryId Category's unique ID.
      * @param habitId Habit's unique ID.
      * @return Retrieved habit.
-     * @throws InformationNotFoundException if the habit is not found.
+     * @throws InformationNotFoundException if the habit is not found in that category of the current user.
      */
     public Habit getHabitByIdAndCategory(Long categoryId, Long habitId){
-        Optional<Category> categoryOptional = getCategory(categoryId);
-        Optional<Habit> habitOptional = categoryOptional
-                .get()
-                .getHabitList()
-                .stream()
-                .filter(habit -> habit.getId() == habitId).findFirst();
+        Optional<Habit> habitOptional = Optional.ofNullable(habitRepository.findWithPracticesByIdAndCategoryIdAndUserId(habitId, categoryId, CurrentUser.get().getId()));
         if(habitOptional.isPresent()) {
             return habitOptional.get();
         } else {
-            throw new InformationNotFoundException("habit with id " + habitId + " not found");
+            throw new InformationNotFoundException("habit with id " + habitId + " not found in category " + categoryId);
         }
     }
 
     /**
-     * Retrieves a habit by its ID.
+     * Retrieves a habit of the current user by its ID.
      * @param habitId Habit's unique ID.
      * @return Retrieved habit.
+     * @throws InformationNotFoundException If the habit is not found or belongs to another user.
      */
     public Habit getHabitById(Long habitId){
-        Optional<Habit> habitOptional = habitRepository.findById(habitId);
+        Optional<Habit> habitOptional = Optional.ofNullable(habitRepository.findByIdAndUserId(habitId, CurrentUser.get().getId()));
         if (habitOptional.isPresent()){
             return habitOptional.get();
         } else {
@@ -197,14 +266,29 @@ public class CategoryService {
         }
     }
 
+    /**
+     * Retrieves those of the given habits that belong to the current user, in a single query.
+     * @param habitIds Habits' unique IDs.
+     * @return The owned habits by ID; IDs of missing or foreign habits are absent.
+     */
+    public Map<Long, Habit> getHabitsByIds(Collection<Long> habitIds){
+        Map<Long, Habit> habitMap = new HashMap<>();
+        if (!habitIds.isEmpty()){
+            for (Habit habit : habitRepository.findByIdInAndUserId(habitIds, CurrentUser.get().getId())){
+                habitMap.put(habit.getId(), habit);
+            }
+        }
+        return habitMap;
+    }
+
     /**
      * Retrieves a list of habits associated with the current user.
      * @return List of user's habits.
      * @throws InformationNotFoundException If no habits are found for the user.
      */
     public List<Habit> getAllHabits() {
-        User user = getCurrentLoggedInUser();
-        List<Habit> habitList = user.getHabitList();
+        User user = CurrentUser.get();
+        List<Habit> habitList = habitRepository.findByUserId(user.getId()); //the principal does not carry collections
 
         if (habitList.isEmpty()){
             throw new InformationNotFoundException("No habits found for User id " + user.getId());
@@ -213,52 +297,90 @@ public class CategoryService {
     }
 
     /**
-     * Updates the specified fields of a given habit using Java Reflection.
+     * Retrieves one page of the current user's habits, ordered by id.
+     * Habits are flattened to their own columns and category id, so that a page stays bounded
+     * however long their history; practices are paged separately.
+     *
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param limit The maximum number of habits in the page, between 1 and PracticeService.MAX_PAGE_SIZE.
+     * @return The page and the cursor of the following one.
+     * @throws InvalidRequestException If the cursor or the limit is invalid.
+     */
+    public CursorPage<Map<String, Object>> getHabitPage(String cursor, int limit) {
+        if (limit < 1 || limit > PracticeService.MAX_PAGE_SIZE){
+            throw new InvalidRequestException("limit must be between 1 and " + PracticeService.MAX_PAGE_SIZE);
+        }
+        long afterId;
+        try {
+            afterId = cursor == null ? 0L : Long.parseLong(cursor);
+        } catch (NumberFormatException e){
+            throw new InvalidRequestException("Invalid cursor " + cursor);
+        }
+        List<Habit> habitList = habitRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(CurrentUser.get().getId(), afterId, PageRequest.ofSize(limit));
+        String nextCursor = habitList.size() == limit ? String.valueOf(habitList.get(habitList.size() - 1).getId()) : null;
+        return new CursorPage<>(habitList.stream().map(SyncStateService::flatten).toList(), nextCursor);
+    }
+
+    /**
+     * Applies a JSON merge-patch to a habit.
      * <p>
-     * Only the necessary fields of the class are updated.
-     *</p>
-     * @References: <a href="https://docs.oracle.com/javase/tutorial/reflect/class/classMembers.html">Using Java Reflection</a><br>
-     *              <a href="https://docs.oracle.com/javase/tutorial/reflect/class/classMembers.html">Discovering Class Members</a><br>
-     *              <a href="https://docs.oracle.com/javase/8/docs/api/java/lang/reflect/Field.html">Class Field</a><br>
-     * @param habit Habit object with the updated properties.
+     * Only name, trigger, outcome and routine can be patched; other keys such as the id,
+     * the category or the practices are ignored. Unchanged values are not written.
+     * If the patch holds the version the client read, it is rejected once the habit changed since.
+     * </p>
+     * @param habitId The unique habit Id.
+     * @param patch The parsed merge-patch document.
      * @return The updated Habit object.
      * @throws InformationNotFoundException If no habit was found if given id.
+     * @throws InvalidRequestException If a key is unknown, a value has the wrong type or clears the name.
+     * @throws InformationExistException If the user already has another habit with the new name.
+     * @throws VersionConflictException If the habit changed since the client read it.
      */
-    public Habit updateHabit(Habit habit) throws IllegalAccessException {
-        Optional<Habit> habitOptional = habitRepository.findById(habit.getId());
+    @Transactional
+    public Habit updateHabit(Long habitId, Map<String, Object> patch) {
+        Optional<Habit> habitOptional = Optional.ofNullable(habitRepository.findByIdAndUserId(habitId, CurrentUser.get().getId()));
         if (habitOptional.isPresent()){
+            Habit habit = habitOptional.get();
+            PatchApplier.checkVersion(patch, habit.getVersion());
+            if (!HABIT_PATCH.apply(habit, patch)){
+                return habit;
+            }
             try {
-                for (Field field : Habit.class.getDeclaredFields()) { // Java Reflection allows to loop through class fields
-                    field.setAccessible(true); //make private fields accessible
-                    Object newValue = field.get(habit); //assigns the current field's value from habit to newValue
-                    Object originalValue = field.get(habitOptional.get()); //assigns the current field's value from habitOptional to originalValue
-                    if (newValue != null && !newValue.equals(originalValue)) { //if not null and different from original
-                        field.set(habitOptional.get(), newValue);
-                    }
-                }
-                return habitRepository.save(habitOptional.get());
-            } catch (IllegalArgumentException e){
-                throw new IllegalArgumentException(e.getMessage());
+                Habit savedHabit = habitRepository.saveAndFlush(habit);
+                syncStateService.recordChange(savedHabit.getUser().getId(), SyncChange.EntityType.HABIT, habitId, false);
+                return savedHabit;
+            } catch (ObjectOptimisticLockingFailureException e){
+                throw new VersionConflictException("Habit with id " + habitId + " was changed concurrently.");
+            } catch (DataIntegrityViolationException e){
+                throw new InformationExistException("Habit " + habit.getName() + " already exists.");
             }
         } else {
-            throw new InformationNotFoundException("Habit with id " + habit.getId() + " not found.");
+            throw new InformationNotFoundException("Habit with id " + habitId + " not found.");
         }
     }
 
     /**
      * Deletes the habit specified by the given categoryId and habitId.
+     * Its practices are removed with a single bulk delete.
      *
      * @param categoryId The unique Category Id.
      * @param habitId The unique Habit Id.
-     * @return The deleted Habit.
+     * @return The deleted Habit, with an empty practice list.
+     * @throws InformationNotFoundException If the habit is not found in that category of the current user.
      */
+    @Transactional
     public Optional<Habit> deleteHabit(Long categoryId, Long habitId) {
-        Optional<Habit> habitOptional = Optional.ofNullable(getHabitByIdAndCategory(categoryId, habitId));
+        Optional<Habit> habitOptional = Optional.ofNullable(habitRepository.findByIdAndUserId(habitId, CurrentUser.get().getId()))
+                .filter(habit -> habit.getCategory().getId().equals(categoryId)); //id of the lazy proxy, no query
         if (habitOptional.isPresent()) {
-            habitRepository.deleteById(habitId);
+            habitSummaryService.deleteSummary(habitId);
+            practiceRepository.deleteByHabitId(habitId);
+            habitRepository.delete(habitOptional.get());
+            habitOptional.get().setPracticeTrackerList(new ArrayList<>()); //deleted in bulk; the lazy list must not reach the response
+            syncStateService.recordChange(CurrentUser.get().getId(), SyncChange.EntityType.HABIT, habitId, true); //also stands for its practices
             return habitOptional;
         } else {
-            throw new InformationNotFoundException("category with id " + categoryId + " not found");
+            throw new InformationNotFoundException("habit with id " + habitId + " not found in category " + categoryId);
         }
     }
 
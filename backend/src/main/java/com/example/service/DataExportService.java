@@ -0,0 +1,116 @@
+package com.example.service;
+
+import com.example.model.Category;
+import com.example.model.Habit;
+import com.example.model.PracticeTracker;
+import com.example.model.SyncChange;
+import com.example.repository.CategoryRepository;
+import com.example.repository.PracticeRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Service class writing all data of a user as newline-delimited JSON, for the export job.
+ * <p>
+ * Each line is {"type":"CATEGORY"|"HABIT"|"PRACTICE","entity":{...}} with the same columns as a delta sync,
+ * categories and habits first, then practices newest first. Categories come with their habits in one query;
+ * practices are read through a database cursor and detached once written, so memory use does not grow
+ * with history length. The User entity is never loaded.
+ * </p>
+ * @version 1.0.0
+ */
+@Service
+public class DataExportService {
+    /**
+     * How many practices are written between two progress reports.
+     */
+    static final int PROGRESS_INTERVAL = 10_000;
+
+    private final CategoryRepository categoryRepository;
+    private final PracticeRepository practiceRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    /**
+     * Injects dependencies and enables dataExportService to access resources.
+     *
+     * @param categoryRepository Loads the user's categories with their habits.
+     * @param practiceRepository Streams the user's practices.
+     * @param objectMapper Serializes the exported rows.
+     * @param entityManager Used to release streamed practices once written.
+     */
+    @Autowired
+    public DataExportService(CategoryRepository categoryRepository, PracticeRepository practiceRepository,
+                             ObjectMapper objectMapper, EntityManager entityManager) {
+        this.categoryRepository = categoryRepository;
+        this.practiceRepository = practiceRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @return The number of practices of a user, the bulk of an export.
+     */
+    public long countPractices(Long userId) {
+        return practiceRepository.countByUserId(userId);
+    }
+
+    /**
+     * Writes everything a user owns to the output stream.
+     *
+     * @param userId The user to export.
+     * @param outputStream Where to write the rows; not closed.
+     * @param progress Told the number of practices written so far, every PROGRESS_INTERVAL practices.
+     * @return The number of practices written.
+     * @throws IOException If writing to the output stream fails.
+     */
+    @Transactional(readOnly = true)
+    public long export(Long userId, OutputStream outputStream, LongConsumer progress) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+        List<Category> categories = categoryRepository.findByUserId(userId);
+        for (Category category : categories) {
+            writeRow(generator, SyncChange.EntityType.CATEGORY, SyncStateService.flatten(category));
+        }
+        for (Category category : categories) {
+            for (Habit habit : category.getHabitList()) {
+                writeRow(generator, SyncChange.EntityType.HABIT, SyncStateService.flatten(habit));
+            }
+        }
+        entityManager.clear();
+        long written = 0;
+        try (Stream<PracticeTracker> practices = practiceRepository.streamByUserId(userId)) {
+            Iterator<PracticeTracker> iterator = practices.iterator();
+            while (iterator.hasNext()) {
+                PracticeTracker practice = iterator.next();
+                writeRow(generator, SyncChange.EntityType.PRACTICE, SyncStateService.flatten(practice));
+                entityManager.detach(practice); //keeps the persistence context from growing
+                if (++written % PROGRESS_INTERVAL == 0) {
+                    progress.accept(written);
+                }
+            }
+        }
+        generator.flush();
+        return written;
+    }
+
+    private static void writeRow(JsonGenerator generator, SyncChange.EntityType type, Map<String, Object> entity) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", type.name());
+        generator.writeObjectField("entity", entity);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * A fixed range of consecutive days stored as one bit per day.<br>
+ * Bit 0 is the first day of the range. Ten years of daily practice fit in 58 longs,
+ * so streaks and completion counts are computed word by word without allocating per day.
+ *
+ * @version 1.0.0
+ */
+public final class DayBitmap {
+    private final long firstDay;
+    private final int length;
+    private final long[] words;
+
+    /**
+     * Creates an empty bitmap covering the given days, both inclusive.
+     *
+     * @param first The first day of the range.
+     * @param last The last day of the range, not before first.
+     */
+    public DayBitmap(LocalDate first, LocalDate last) {
+        this.firstDay = first.toEpochDay();
+        long days = last.toEpochDay() - firstDay + 1;
+        if (days < 1 || days > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid day range " + first + " to " + last);
+        }
+        this.length = (int) days;
+        this.words = new long[(length + 63) >>> 6];
+    }
+
+    public LocalDate getFirstDay() {
+        return LocalDate.ofEpochDay(firstDay);
+    }
+
+    public LocalDate getLastDay() {
+        return LocalDate.ofEpochDay(firstDay + length - 1);
+    }
+
+    /**
+     * @return The number of days covered by the bitmap.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Marks the given day. Days outside the range are ignored.
+     */
+    public void set(LocalDate day) {
+        setEpochDay(day.toEpochDay());
+    }
+
+    /**
+     * Marks the given epoch day. Days outside the range are ignored.
+     */
+    public void setEpochDay(long epochDay) {
+        long index = epochDay - firstDay;
+        if (index >= 0 && index < length) {
+            words[(int) (index >>> 6)] |= 1L << index;
+        }
+    }
+
+    /**
+     * @return true if the given day is marked, false if it is not or lies outside the range.
+     */
+    public boolean get(LocalDate day) {
+        long index = day.toEpochDay() - firstDay;
+        return index >= 0 && index < length && (words[(int) (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return The number of marked days in the whole range.
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return The last marked day, or null if no day is marked.
+     */
+    public LocalDate lastSetDay() {
+        for (int i = words.length - 1; i >= 0; i--) {
+            if (words[i] != 0) {
+                return LocalDate.ofEpochDay(firstDay + ((long) i << 6) + 63 - Long.numberOfLeadingZeros(words[i]));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts the marked days between from and to, both inclusive, clamped to the range.
+     */
+    public int count(LocalDate from, LocalDate to) {
+        long start = Math.max(from.toEpochDay() - firstDay, 0);
+        long end = Math.min(to.toEpochDay() - firstDay, length - 1);
+        if (start > end) {
+            return 0;
+        }
+        int startWord = (int) (start >>> 6);
+        int endWord = (int) (end >>> 6);
+        long startMask = -1L << start;
+        long endMask = -1L >>> (63 - (end & 63));
+        if (startWord == endWord) {
+            return Long.bitCount(words[startWord] & startMask & endMask);
+        }
+        int count = Long.bitCount(words[startWord] & startMask);
+        for (int i = startWord + 1; i < endWord; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count + Long.bitCount(words[endWord] & endMask);
+    }
+
+    /**
+     * Counts the consecutive marked days ending at the given day.
+     *
+     * @return The length of the run, or 0 if the day is not marked or lies outside the range.
+     */
+    public int runEndingAt(LocalDate day) {
+        long index = day.toEpochDay() - firstDay;
+        if (index < 0 || index >= length) {
+            return 0;
+        }
+        int word = (int) (index >>> 6);
+        int bit = (int) (index & 63);
+        int run = Long.numberOfLeadingZeros(~(words[word] << (63 - bit))); // ones from bit downwards
+        if (run <= bit) {
+            return run;
+        }
+        for (word--; word >= 0; word--) {
+            if (words[word] != -1L) {
+                return run + Long.numberOfLeadingZeros(~words[word]);
+            }
+            run += 64;
+        }
+        return run;
+    }
+
+    /**
+     * @return The length of the longest run of consecutive marked days.
+     */
+    public int longestRun() {
+        int longest = 0;
+        int current = 0; // run that reaches the top bit of the previous word
+        for (long word : words) {
+            if (word == -1L) {
+                current += 64;
+                continue;
+            }
+            current += Long.numberOfTrailingZeros(~word); // ones continuing the previous run
+            longest = Math.max(longest, current);
+            int inner = 0;
+            for (long bits = word; bits != 0; bits &= bits << 1) {
+                inner++;
+            }
+            longest = Math.max(longest, inner);
+            current = Long.numberOfLeadingZeros(~word);
+        }
+        return Math.max(longest, current);
+    }
+
+    /**
+     * @return The bitmap as little-endian bytes: bit i of byte j is day 8 * j + i of the range.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[(length + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "DayBitmap{" +
+                "firstDay=" + getFirstDay() +
+                ", lastDay=" + getLastDay() +
+                ", words=" + Arrays.toString(words) +
+                '}';
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.service;
+
+import com.example.exception.InformationNotFoundException;
+import com.example.exception.InvalidRequestException;
+import com.example.model.HabitSummary;
+import com.example.model.projection.HabitDay;
+import com.example.model.response.HabitStats;
+import com.example.model.response.Heatmap;
+import com.example.repository.HabitRepository;
+import com.example.repository.PracticeRepository;
+import com.example.security.CurrentUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service class computing streaks and completion rates of habits from their practices.
+ * <p>
+ * Streaks and totals come from the materialized {@link HabitSummary}; completion rates only read
+ * the done dates of the last year, folded into a {@link DayBitmap}. Statistics as of a date before
+ * the last check-in fall back to folding the whole history.
+ * Heatmaps fold the done days of all habits of a user into one {@link DayBitmap} per habit.
+ * </p>
+ * @version 1.2.0
+ */
+@Service
+public class HabitStatsService {
+    /**
+     * The longest range a heatmap may cover, about ten years.
+     */
+    public static final int MAX_HEATMAP_DAYS = 3660;
+    private final HabitRepository habitRepository;
+    private final PracticeRepository practiceRepository;
+    private final HabitSummaryService habitSummaryService;
+
+    /**
+     * Injects dependencies and enables habitStatsService to access resources.
+     *
+     * @param habitRepository Repository used to check habit ownership.
+     * @param practiceRepository Repository providing the dates of done practices.
+     * @param habitSummaryService Service providing the materialized streaks.
+     */
+    @Autowired
+    public HabitStatsService(HabitRepository habitRepository, PracticeRepository practiceRepository,
+                             HabitSummaryService habitSummaryService) {
+        this.habitRepository = habitRepository;
+        this.practiceRepository = practiceRepository;
+        this.habitSummaryService = habitSummaryService;
+    }
+
+    /**
+     * Computes the statistics of a habit of the current user.
+     *
+     * @param habitId The unique habit Id.
+     * @param asOf The day the statistics are computed for, usually today.
+     * @return The streaks and completion rates of the habit.
+     * @throws InformationNotFoundException If the habit does not exist or belongs to another user.
+     */
+    @Transactional(readOnly = true)
+    public HabitStats getHabitStats(Long habitId, LocalDate asOf) {
+        if (!habitRepository.existsByIdAndUserId(habitId, CurrentUser.get().getId())) {
+            throw new InformationNotFoundException("Habit with id " + habitId + " not found.");
+        }
+        Optional<HabitSummary> summary = habitSummaryService.getSummary(habitId);
+        if (summary.isPresent() && (summary.get().getLastDoneDate() == null || !asOf.isBefore(summary.get().getLastDoneDate()))) {
+            LocalDate yearStart = asOf.minusDays(364);
+            DayBitmap lastYear = new DayBitmap(yearStart, asOf);
+            for (LocalDate date : practiceRepository.findDoneDatesByHabitIdBetween(habitId, yearStart, asOf)) {
+                lastYear.set(date);
+            }
+            return computeStats(asOf, summary.get(), lastYear);
+        }
+        List<LocalDate> doneDates = practiceRepository.findDoneDatesByHabitId(habitId);
+        return computeStats(habitId, asOf, toBitmap(doneDates, asOf));
+    }
+
+    /**
+     * Builds the heatmap of the current user's habits between from and to, both inclusive.
+     * The done days are read with one projection query, without loading practice entities.
+     *
+     * @param from The first day of the heatmap.
+     * @param to The last day of the heatmap.
+     * @return One bitmap per habit, in habit id order, including habits without done days.
+     * @throws InvalidRequestException If from is after to or the range exceeds MAX_HEATMAP_DAYS.
+     */
+    @Transactional(readOnly = true)
+    public Heatmap getHeatmap(LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || to.toEpochDay() - from.toEpochDay() >= MAX_HEATMAP_DAYS) {
+            throw new InvalidRequestException("The range must be between 1 and " + MAX_HEATMAP_DAYS + " days");
+        }
+        Long userId = CurrentUser.get().getId();
+        Map<Long, DayBitmap> bitmaps = new LinkedHashMap<>();
+        for (Long habitId : habitRepository.findIdsByUserId(userId)) {
+            bitmaps.put(habitId, new DayBitmap(from, to));
+        }
+        for (HabitDay habitDay : practiceRepository.findDoneHabitDaysByUserIdBetween(userId, from, to)) {
+            DayBitmap bitmap = bitmaps.get(habitDay.getHabitId());
+            if (bitmap != null) {
+                bitmap.set(habitDay.getDate());
+            }
+        }
+        List<Heatmap.HabitDays> habits = new ArrayList<>(bitmaps.size());
+        bitmaps.forEach((habitId, bitmap) -> habits.add(new Heatmap.HabitDays(habitId, bitmap.toByteArray())));
+        return new Heatmap(from, to, habits);
+    }
+
+    /**
+     * Encodes a heatmap for application/octet-stream: for each habit, its id as an 8-byte big-endian long
+     * followed by its days, (days in range + 7) / 8 bytes. The range itself is sent in headers.
+     */
+    public static byte[] encodeHeatmap(Heatmap heatmap) {
+        int daysLength = (int) ((heatmap.getTo().toEpochDay() - heatmap.getFrom().toEpochDay() + 8) / 8);
+        ByteBuffer buffer = ByteBuffer.allocate(heatmap.getHabits().size() * (Long.BYTES + daysLength));
+        for (Heatmap.HabitDays habit : heatmap.getHabits()) {
+            buffer.putLong(habit.getHabitId());
+            buffer.put(habit.getDays());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Computes the statistics from a summary whose last done date is not after asOf,
+     * and a bitmap of the done days of the year ending at asOf.
+     */
+    static HabitStats computeStats(LocalDate asOf, HabitSummary summary, DayBitmap lastYear) {
+        LocalDate lastDoneDate = summary.getLastDoneDate();
+        boolean streakIsCurrent = lastDoneDate != null && !lastDoneDate.isBefore(asOf.minusDays(1));
+        return new HabitStats(summary.getHabitId(), asOf,
+                streakIsCurrent ? summary.getCurrentStreak() : 0,
+                summary.getLongestStreak(),
+                lastDoneDate,
+                summary.getTotalDone(),
+                completionRate(lastYear, asOf, 7),
+                completionRate(lastYear, asOf, 30),
+                completionRate(lastYear, asOf, 365));
+    }
+
+    /**
+     * Folds the given dates into a bitmap ending at asOf. Dates after asOf are ignored.
+     *
+     * @return The bitmap, or null if no date is on or before asOf.
+     */
+    static DayBitmap toBitmap(List<LocalDate> dates, LocalDate asOf) {
+        long last = asOf.toEpochDay();
+        long first = Long.MAX_VALUE;
+        for (LocalDate date : dates) {
+            long day = date.toEpochDay();
+            if (day < first) {
+                first = day;
+            }
+        }
+        if (first > last) {
+            return null;
+        }
+        DayBitmap bitmap = new DayBitmap(LocalDate.ofEpochDay(first), asOf);
+        for (LocalDate date : dates) {
+            bitmap.set(date);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Computes the statistics from a bitmap of done days ending at asOf.
+     * The current streak still counts when today has not been checked in yet.
+     */
+    static HabitStats computeStats(Long habitId, LocalDate asOf, DayBitmap doneDays) {
+        if (doneDays == null) {
+            return new HabitStats(habitId, asOf, 0, 0, null, 0, 0, 0, 0);
+        }
+        int currentStreak = doneDays.get(asOf) ? doneDays.runEndingAt(asOf) : doneDays.runEndingAt(asOf.minusDays(1));
+        return new HabitStats(habitId, asOf,
+                currentStreak,
+                doneDays.longestRun(),
+                doneDays.lastSetDay(),
+                doneDays.cardinality(),
+                completionRate(doneDays, asOf, 7),
+                completionRate(doneDays, asOf, 30),
+                completionRate(doneDays, asOf, 365));
+    }
+
+    private static double completionRate(DayBitmap doneDays, LocalDate asOf, int days) {
+        return (double) doneDays.count(asOf.minusDays(days - 1L), asOf) / days;
+    }
+}
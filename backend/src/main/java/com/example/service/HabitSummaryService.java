@@ -0,0 +1,299 @@
+package com.example.service;
+
+import com.example.model.HabitSummary;
+import com.example.repository.HabitRepository;
+import com.example.repository.HabitSummaryRepository;
+import com.example.repository.PracticeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Service class maintaining the materialized {@link HabitSummary} of every habit.
+ * <p>
+ * Practice writes call into this service inside their own transaction: a check-in that extends the
+ * latest streak is applied incrementally, anything else (back-dated check-ins, edits, deletions)
+ * recomputes the summary of that one habit from its done dates.
+ * A full rebuild and a consistency check run across all habits in parallel.
+ * </p>
+ * @version 1.0.0
+ */
+@Service
+public class HabitSummaryService {
+    private final HabitSummaryRepository habitSummaryRepository;
+    private final HabitRepository habitRepository;
+    private final PracticeRepository practiceRepository;
+    private final TransactionTemplate transactionTemplate;
+    Logger logger = Logger.getLogger(HabitSummaryService.class.getName());
+
+    /**
+     * The number of habits rebuilt or checked at the same time.
+     */
+    @Value("${habit-summary.parallelism:4}")
+    private int parallelism;
+
+    @Value("${habit-summary.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${habit-summary.check-on-startup:false}")
+    private boolean checkOnStartup;
+
+    /**
+     * Injects dependencies and enables habitSummaryService to access resources.
+     *
+     * @param habitSummaryRepository Repository storing the summaries.
+     * @param habitRepository Repository listing the habits to rebuild.
+     * @param practiceRepository Repository providing the done dates of a habit.
+     * @param transactionManager Used to run each habit of a rebuild in its own transaction.
+     */
+    @Autowired
+    public HabitSummaryService(HabitSummaryRepository habitSummaryRepository, HabitRepository habitRepository,
+                               PracticeRepository practiceRepository, PlatformTransactionManager transactionManager) {
+        this.habitSummaryRepository = habitSummaryRepository;
+        this.habitRepository = habitRepository;
+        this.practiceRepository = practiceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Creates the empty summary of a newly created habit.
+     *
+     * @param habitId The unique habit Id.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createSummary(Long habitId) {
+        habitSummaryRepository.save(new HabitSummary(habitId, 0, 0, null, 0));
+    }
+
+    /**
+     * Deletes the summary of a habit that is being deleted.
+     *
+     * @param habitId The unique habit Id.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteSummary(Long habitId) {
+        if (habitSummaryRepository.existsById(habitId)) {
+            habitSummaryRepository.deleteById(habitId);
+        }
+    }
+
+    /**
+     * Deletes the summaries of all habits of a category that is being deleted.
+     *
+     * @param categoryId The unique category Id.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteSummariesOfCategory(Long categoryId) {
+        habitSummaryRepository.deleteByCategoryId(categoryId);
+    }
+
+    /**
+     * Returns the stored summary of a habit.
+     *
+     * @param habitId The unique habit Id.
+     * @return The summary, or empty if the habit has none yet.
+     */
+    public Optional<HabitSummary> getSummary(Long habitId) {
+        return habitSummaryRepository.findById(habitId);
+    }
+
+    /**
+     * Applies a check-in marked as done on the given date.
+     * <p>
+     * If the date is not before the last done date the counters are updated in place;
+     * otherwise the summary is recomputed, since a back-dated check-in may join two streaks.
+     * </p>
+     * @param habitId The unique habit Id.
+     * @param date The date of the done practice.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDone(Long habitId, LocalDate date) {
+        recordDone(habitId, List.of(date));
+    }
+
+    /**
+     * Applies several check-ins of one habit marked as done, such as those of a batch check-in.
+     * <p>
+     * When none of them is before the last done date they are applied incrementally in date order;
+     * otherwise the summary is recomputed once for the whole batch.
+     * </p>
+     * @param habitId The unique habit Id.
+     * @param dates The dates of the done practices, in ascending order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDone(Long habitId, List<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        Optional<HabitSummary> summaryOptional = habitSummaryRepository.lockByHabitId(habitId);
+        if (summaryOptional.isEmpty()) {
+            recompute(habitId);
+            return;
+        }
+        HabitSummary summary = summaryOptional.get();
+        if (summary.getLastDoneDate() != null && dates.get(0).isBefore(summary.getLastDoneDate())) {
+            recompute(habitId);
+            return;
+        }
+        for (LocalDate date : dates) {
+            extend(summary, date);
+        }
+    }
+
+    /**
+     * Extends the counters with a done day that is not before the last done date.
+     */
+    private static void extend(HabitSummary summary, LocalDate date) {
+        LocalDate lastDoneDate = summary.getLastDoneDate();
+        if (date.equals(lastDoneDate)) {
+            return; // the day was already done
+        }
+        int streak = lastDoneDate != null && date.equals(lastDoneDate.plusDays(1)) ? summary.getCurrentStreak() + 1 : 1;
+        summary.setCurrentStreak(streak);
+        summary.setLongestStreak(Math.max(summary.getLongestStreak(), streak));
+        summary.setLastDoneDate(date);
+        summary.setTotalDone(summary.getTotalDone() + 1);
+    }
+
+    /**
+     * Recomputes the summary of a habit from its done dates and stores it.
+     * Used whenever a write cannot be applied incrementally.
+     * The summary row is locked before the done dates are read, so that a concurrent write to the
+     * same habit either commits first and is read here, or waits for this transaction.
+     *
+     * @param habitId The unique habit Id.
+     * @return The stored summary.
+     */
+    @Transactional
+    public HabitSummary recompute(Long habitId) {
+        Optional<HabitSummary> summaryOptional = habitSummaryRepository.lockByHabitId(habitId);
+        HabitSummary expected = computeSummary(habitId);
+        HabitSummary summary = summaryOptional.orElse(expected);
+        summary.setCurrentStreak(expected.getCurrentStreak());
+        summary.setLongestStreak(expected.getLongestStreak());
+        summary.setLastDoneDate(expected.getLastDoneDate());
+        summary.setTotalDone(expected.getTotalDone());
+        return habitSummaryRepository.save(summary);
+    }
+
+    /**
+     * Computes what the summary of a habit should be, from its practices, without storing it.
+     */
+    HabitSummary computeSummary(Long habitId) {
+        List<LocalDate> doneDates = practiceRepository.findDoneDatesByHabitId(habitId);
+        if (doneDates.isEmpty()) {
+            return new HabitSummary(habitId, 0, 0, null, 0);
+        }
+        LocalDate first = doneDates.get(0);
+        LocalDate last = first;
+        for (LocalDate date : doneDates) {
+            if (date.isBefore(first)) {
+                first = date;
+            } else if (date.isAfter(last)) {
+                last = date;
+            }
+        }
+        DayBitmap doneDays = new DayBitmap(first, last);
+        for (LocalDate date : doneDates) {
+            doneDays.set(date);
+        }
+        return new HabitSummary(habitId, doneDays.runEndingAt(last), doneDays.longestRun(), last, doneDays.cardinality());
+    }
+
+    /**
+     * Recomputes the summaries of all habits from scratch, each habit in its own transaction.
+     * Intended for backfills and after a failed consistency check.
+     *
+     * @return The number of habits rebuilt.
+     */
+    public int rebuildAll() {
+        List<Long> habitIds = habitRepository.findAllIds();
+        forEachHabit(habitIds, habitId -> transactionTemplate.execute(status -> recompute(habitId)));
+        logger.info("Rebuilt " + habitIds.size() + " habit summaries");
+        return habitIds.size();
+    }
+
+    /**
+     * Compares every stored summary with the one computed from the raw practices.
+     *
+     * @return The habits whose stored summary is missing or differs, with both versions.
+     */
+    public List<HabitSummaryMismatch> findInconsistencies() {
+        List<Long> habitIds = habitRepository.findAllIds();
+        List<HabitSummaryMismatch> mismatches = Collections.synchronizedList(new ArrayList<>());
+        forEachHabit(habitIds, habitId -> transactionTemplate.execute(status -> {
+            HabitSummary expected = computeSummary(habitId);
+            HabitSummary stored = habitSummaryRepository.findById(habitId).orElse(null);
+            if (stored == null || !stored.sameCountersAs(expected)) {
+                mismatches.add(new HabitSummaryMismatch(habitId, stored, expected));
+            }
+            return null;
+        }));
+        mismatches.forEach(mismatch -> logger.warning("Inconsistent habit summary: " + mismatch));
+        return mismatches;
+    }
+
+    /**
+     * Runs the optional startup rebuild and consistency check.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuildAll();
+        }
+        if (checkOnStartup) {
+            findInconsistencies();
+        }
+    }
+
+    private void forEachHabit(List<Long> habitIds, Consumer<Long> task) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long habitId : habitIds) {
+                futures.add(executor.submit(() -> task.accept(habitId)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Habit summary job interrupted", e);
+        } catch (ExecutionException e) {
+            logger.log(Level.SEVERE, "Habit summary job failed", e.getCause());
+            throw new IllegalStateException("Habit summary job failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A habit whose stored summary does not match its practices.
+     *
+     * @param habitId The unique habit Id.
+     * @param stored The stored summary, or null if missing.
+     * @param expected The summary computed from the practices.
+     */
+    public record HabitSummaryMismatch(Long habitId, HabitSummary stored, HabitSummary expected) {
+    }
+}
@@ -0,0 +1,483 @@
+package com.example.service;
+
+import com.example.exception.InvalidRequestException;
+import com.example.model.Category;
+import com.example.model.Habit;
+import com.example.model.PracticeTracker;
+import com.example.model.SyncChange;
+import com.example.model.User;
+import com.example.model.projection.NamedEntity;
+import com.example.model.response.ImportResult;
+import com.example.repository.CategoryRepository;
+import com.example.repository.HabitRepository;
+import com.example.repository.PracticeRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Service class importing the practice history of a user from CSV or newline-delimited JSON.
+ * <p>
+ * The upload is read line by line and never held in memory as a whole. Each row names a habit, a date and
+ * optionally a category and whether the habit was done; habits and categories are looked up by name in maps
+ * loaded once per import, and created when missing. The dates each habit already has are kept in a
+ * {@link DayBitmap}, so a row for a taken (habit, date) is counted as a duplicate without a query.
+ * Rows are written import.batch-size at a time, each batch in its own transaction with JDBC batching; a batch
+ * that fails is rolled back and its rows reported as failed, the others are kept. Habit summaries are
+ * recomputed once per habit at the end.
+ * </p>
+ * @version 1.0.0
+ */
+@Service
+public class ImportService {
+    /**
+     * The category of created habits whose row names none.
+     */
+    public static final String DEFAULT_CATEGORY = "Imported";
+    /**
+     * How far back an imported date may go; the taken dates of each habit are kept over this range.
+     */
+    public static final int MAX_HISTORY_YEARS = 100;
+    /**
+     * The longest habit or category name, the length of the name columns.
+     */
+    static final int MAX_NAME_LENGTH = 255;
+
+    /**
+     * The formats of an upload.
+     */
+    public enum Format {
+        /**
+         * Comma-separated values with a header line naming the columns habit, date and optionally category and done.
+         */
+        CSV,
+        /**
+         * One JSON object per line with the keys habit, date and optionally category and done.
+         */
+        NDJSON
+    }
+
+    private final CategoryRepository categoryRepository;
+    private final HabitRepository habitRepository;
+    private final PracticeRepository practiceRepository;
+    private final HabitSummaryService habitSummaryService;
+    private final SyncStateService syncStateService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    Logger logger = Logger.getLogger(ImportService.class.getName());
+
+    /**
+     * The number of rows written per transaction.
+     */
+    @Value("${import.batch-size:5000}")
+    private int batchSize;
+
+    /**
+     * The number of inserts sent to the database per JDBC batch while importing.
+     */
+    @Value("${import.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Value("${import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    /**
+     * Injects dependencies and enables importService to access resources.
+     *
+     * @param categoryRepository Looks up the user's categories by name.
+     * @param habitRepository Looks up the user's habits by name.
+     * @param practiceRepository Provides the dates each habit already has.
+     * @param habitSummaryService Creates the summaries of new habits and recomputes those of imported ones.
+     * @param syncStateService Records every created entity in the user's change log.
+     * @param objectMapper Parses NDJSON lines.
+     * @param entityManager Persists the rows of a batch and releases them once written.
+     * @param transactionManager Used to run each batch in its own transaction.
+     */
+    @Autowired
+    public ImportService(CategoryRepository categoryRepository, HabitRepository habitRepository,
+                         PracticeRepository practiceRepository, HabitSummaryService habitSummaryService,
+                         SyncStateService syncStateService, ObjectMapper objectMapper, EntityManager entityManager,
+                         PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.habitRepository = habitRepository;
+        this.practiceRepository = practiceRepository;
+        this.habitSummaryService = habitSummaryService;
+        this.syncStateService = syncStateService;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionTemplate.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Imports the practices of an upload into a user's history.
+     *
+     * @param userId The user importing. Resolved by the caller.
+     * @param format The format of the upload.
+     * @param inputStream The upload, read up to its end but not closed.
+     * @return The number of imported, duplicate and failed rows, the errors of the first failed lines and the rate.
+     * @throws InvalidRequestException If the CSV header lacks the habit or date column.
+     * @throws IOException If reading the upload fails; the batches written until then are kept.
+     */
+    public ImportResult importPractices(Long userId, Format format, InputStream inputStream) throws IOException {
+        long start = System.nanoTime();
+        ImportResult result = new ImportResult(maxReportedErrors);
+        ImportState state = new ImportState(userId, LocalDate.now());
+        state.load();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), 64 * 1024);
+        Map<String, Integer> columns = format == Format.CSV ? null : Map.of();
+        List<Row> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (columns == null) {
+                columns = parseHeader(line);
+                continue;
+            }
+            result.rowRead();
+            try {
+                batch.add(format == Format.CSV ? parseCsvRow(line, lineNumber, columns, state.today)
+                        : parseJsonRow(line, lineNumber, state.today));
+            } catch (IllegalArgumentException e) {
+                result.fail(lineNumber, e.getMessage());
+            }
+            if (batch.size() == batchSize) {
+                writeBatch(state, batch, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(state, batch, result);
+        }
+        for (Long habitId : state.doneHabitIds) {
+            habitSummaryService.recompute(habitId); //once per habit, in its own transaction
+        }
+        result.finish(System.nanoTime() - start);
+        logger.info(String.format("Import stored %d of %d rows (%d duplicates, %d failed) in %.1f ms (%.0f rows/s)",
+                result.getImported(), result.getRows(), result.getDuplicates(), result.getFailed(),
+                result.getElapsedMs(), result.getRowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Writes one batch in its own transaction and adds its outcome to the result.
+     * If the batch fails, nothing of it is stored: its rows are reported as failed and the name
+     * maps and taken dates are reloaded, since they may hold entities of the rolled back transaction.
+     */
+    private void writeBatch(ImportState state, List<Row> rows, ImportResult result) {
+        try {
+            BatchOutcome outcome = transactionTemplate.execute(status -> writeRows(state, rows));
+            result.batchStored(outcome.imported, outcome.duplicates, outcome.categoryIds.size(), outcome.habitIds.size());
+            state.doneHabitIds.addAll(outcome.doneHabitIds);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Import batch of " + rows.size() + " rows failed", e);
+            entityManager.clear();
+            String message = "Not imported, the batch of lines " + rows.get(0).line() + " to " + rows.get(rows.size() - 1).line()
+                    + " failed: " + e.getMessage();
+            for (Row row : rows) {
+                result.fail(row.line(), message);
+            }
+            state.load();
+        }
+    }
+
+    private BatchOutcome writeRows(ImportState state, List<Row> rows) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        User user = entityManager.getReference(User.class, state.userId);
+        BatchOutcome outcome = new BatchOutcome();
+        List<Long> practiceIds = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Long habitId = state.habitIds.get(row.habit());
+            if (habitId == null) {
+                habitId = createHabit(state, row, user, outcome);
+            }
+            DayBitmap takenDays = state.takenDays(habitId);
+            if (takenDays.get(row.date())) {
+                outcome.duplicates++;
+                continue;
+            }
+            takenDays.set(row.date());
+            PracticeTracker practice = new PracticeTracker(null, row.done(), row.date(), entityManager.getReference(Habit.class, habitId));
+            practice.setUser(user);
+            entityManager.persist(practice); //the id comes from the sequence, the insert is batched at flush
+            practiceIds.add(practice.getId());
+            if (row.done()) {
+                outcome.doneHabitIds.add(habitId);
+            }
+        }
+        outcome.imported = practiceIds.size();
+        if (!outcome.categoryIds.isEmpty()) {
+            syncStateService.recordChanges(state.userId, SyncChange.EntityType.CATEGORY, outcome.categoryIds, false);
+        }
+        if (!outcome.habitIds.isEmpty()) {
+            syncStateService.recordChanges(state.userId, SyncChange.EntityType.HABIT, outcome.habitIds, false);
+        }
+        if (!practiceIds.isEmpty()) {
+            syncStateService.recordChanges(state.userId, SyncChange.EntityType.PRACTICE, practiceIds, false);
+        }
+        entityManager.flush();
+        entityManager.clear(); //keeps the persistence context from growing, it lives as long as the request
+        return outcome;
+    }
+
+    /**
+     * Creates the habit of a row, and its category if the user has none of that name.
+     *
+     * @return The id of the new habit.
+     */
+    private Long createHabit(ImportState state, Row row, User user, BatchOutcome outcome) {
+        String categoryName = row.category() != null ? row.category() : DEFAULT_CATEGORY;
+        Long categoryId = state.categoryIds.get(categoryName);
+        if (categoryId == null) {
+            Category category = new Category(null, categoryName, null);
+            category.setUser(user);
+            entityManager.persist(category); //identity id, inserted at once
+            categoryId = category.getId();
+            state.categoryIds.put(categoryName, categoryId);
+            outcome.categoryIds.add(categoryId);
+        }
+        Habit habit = new Habit(null, row.habit(), null, null, null, entityManager.getReference(Category.class, categoryId));
+        habit.setUser(user);
+        entityManager.persist(habit);
+        habitSummaryService.createSummary(habit.getId());
+        state.habitIds.put(row.habit(), habit.getId());
+        state.takenDays.put(habit.getId(), state.emptyDays());
+        outcome.habitIds.add(habit.getId());
+        return habit.getId();
+    }
+
+    /**
+     * Maps the column names of a CSV header, in any order and case, to their positions.
+     *
+     * @throws InvalidRequestException If the habit or date column is missing.
+     */
+    static Map<String, Integer> parseHeader(String line) {
+        List<String> names;
+        try {
+            names = splitCsv(line.startsWith("\uFEFF") ? line.substring(1) : line); //byte order mark
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid CSV header: " + e.getMessage());
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.putIfAbsent(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("habit") || !columns.containsKey("date")) {
+            throw new InvalidRequestException("The CSV header must name the columns habit and date, and may name category and done");
+        }
+        return columns;
+    }
+
+    private static Row parseCsvRow(String line, long lineNumber, Map<String, Integer> columns, LocalDate today) {
+        List<String> fields = splitCsv(line);
+        return toRow(lineNumber, field(fields, columns.get("category")), field(fields, columns.get("habit")),
+                field(fields, columns.get("date")), field(fields, columns.get("done")), today);
+    }
+
+    private Row parseJsonRow(String line, long lineNumber, LocalDate today) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return toRow(lineNumber, text(node.get("category")), text(node.get("habit")), text(node.get("date")),
+                text(node.get("done")), today);
+    }
+
+    /**
+     * Validates the fields of a row.
+     *
+     * @throws IllegalArgumentException With the message reported for the line.
+     */
+    private static Row toRow(long lineNumber, String category, String habit, String date, String done, LocalDate today) {
+        if (habit == null) {
+            throw new IllegalArgumentException("habit is required");
+        }
+        if (habit.length() > MAX_NAME_LENGTH || (category != null && category.length() > MAX_NAME_LENGTH)) {
+            throw new IllegalArgumentException("Names must be at most " + MAX_NAME_LENGTH + " characters");
+        }
+        if (date == null) {
+            throw new IllegalArgumentException("date is required");
+        }
+        LocalDate parsedDate;
+        try {
+            parsedDate = LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date " + date + ", expected yyyy-MM-dd");
+        }
+        if (parsedDate.isAfter(today)) {
+            throw new IllegalArgumentException("Date must equal or before today's date");
+        }
+        if (parsedDate.isBefore(today.minusYears(MAX_HISTORY_YEARS))) {
+            throw new IllegalArgumentException("Date must be within the last " + MAX_HISTORY_YEARS + " years");
+        }
+        return new Row(lineNumber, category, habit, parsedDate, parseDone(done));
+    }
+
+    /**
+     * @return true for a missing value, true/1/yes and false/0/no in any case.
+     */
+    private static boolean parseDone(String done) {
+        if (done == null) {
+            return true;
+        }
+        switch (done.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes":
+                return true;
+            case "false", "0", "no":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid done " + done + ", expected true or false");
+        }
+    }
+
+    /**
+     * @return The trimmed field at the given position, or null if the column is absent or the field is blank.
+     */
+    private static String field(List<String> fields, Integer column) {
+        if (column == null || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        String value = node.asText().trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Splits a CSV line into its fields. A field may be quoted to contain commas, a quote inside it is doubled.
+     *
+     * @throws IllegalArgumentException If a quoted field is not closed on the same line.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * A validated row of the upload.
+     */
+    private record Row(long line, String category, String habit, LocalDate date, boolean done) {
+    }
+
+    /**
+     * What a committed batch stored.
+     */
+    private static final class BatchOutcome {
+        private long imported;
+        private long duplicates;
+        private final List<Long> categoryIds = new ArrayList<>();
+        private final List<Long> habitIds = new ArrayList<>();
+        private final TreeSet<Long> doneHabitIds = new TreeSet<>();
+    }
+
+    /**
+     * The name maps and taken dates of the user, kept for the whole import.
+     */
+    private final class ImportState {
+        private final Long userId;
+        private final LocalDate today;
+        private final Map<String, Long> categoryIds = new HashMap<>();
+        private final Map<String, Long> habitIds = new HashMap<>();
+        private final Map<Long, DayBitmap> takenDays = new HashMap<>();
+        private final TreeSet<Long> doneHabitIds = new TreeSet<>();
+
+        private ImportState(Long userId, LocalDate today) {
+            this.userId = userId;
+            this.today = today;
+        }
+
+        /**
+         * Loads the names of the user's categories and habits, one query each; taken dates are loaded per habit on first use.
+         */
+        private void load() {
+            categoryIds.clear();
+            habitIds.clear();
+            takenDays.clear();
+            for (NamedEntity category : categoryRepository.findNamesByUserId(userId)) {
+                categoryIds.put(category.getName(), category.getId());
+            }
+            for (NamedEntity habit : habitRepository.findNamesByUserId(userId)) {
+                habitIds.put(habit.getName(), habit.getId());
+            }
+        }
+
+        private DayBitmap emptyDays() {
+            return new DayBitmap(today.minusYears(MAX_HISTORY_YEARS), today);
+        }
+
+        private DayBitmap takenDays(Long habitId) {
+            return takenDays.computeIfAbsent(habitId, id -> {
+                DayBitmap days = emptyDays();
+                for (LocalDate date : practiceRepository.findDatesByHabitId(id)) {
+                    days.set(date);
+                }
+                return days;
+            });
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.service;
+
+import com.example.exception.InformationNotFoundException;
+import com.example.exception.TooManyRequestsException;
+import com.example.model.Job;
+import com.example.repository.JobRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service class running the background jobs of users: data exports and account deletions.
+ * <p>
+ * A job is stored as QUEUED and handed to a pool of jobs.workers threads with room for jobs.queue-capacity
+ * waiting jobs; beyond that, submissions fail with {@link TooManyRequestsException} (429). A user has at most one
+ * active job of each kind, submitting again returns it. Workers record progress in the jobs table as they go,
+ * so clients poll the status instead of holding a request open. Jobs that were queued or running when the
+ * application stopped are run again at startup, from the beginning: both kinds can safely be repeated.
+ * An account deletion also deletes the user's export files.
+ * </p>
+ * @version 1.1.0
+ */
+@Service
+public class JobService {
+    private static final Set<Job.Status> ACTIVE = EnumSet.of(Job.Status.QUEUED, Job.Status.RUNNING);
+
+    private final JobRepository jobRepository;
+    private final DataExportService dataExportService;
+    private final AccountService accountService;
+    private final MeterRegistry meterRegistry;
+    private final Counter succeededCounter;
+    private final Counter failedCounter;
+    private ThreadPoolExecutor executor;
+    Logger logger = Logger.getLogger(JobService.class.getName());
+
+    @Value("${jobs.workers:2}")
+    private int workers;
+
+    @Value("${jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    /**
+     * The directory holding finished exports; only the latest export of each user is kept.
+     */
+    @Value("${jobs.export-dir:${java.io.tmpdir}/dailyrise-exports}")
+    private Path exportDirectory;
+
+    /**
+     * The number of practices an account deletion removes per transaction.
+     */
+    @Value("${jobs.deletion-chunk-size:5000}")
+    private int deletionChunkSize;
+
+    /**
+     * Injects dependencies and enables jobService to access resources.
+     *
+     * @param jobRepository Repository storing the jobs and their progress.
+     * @param dataExportService Writes the data of an export job.
+     * @param accountService Deletes the data of an account deletion job.
+     * @param meterRegistry Registry of the queue and worker gauges and the finished job counters.
+     */
+    @Autowired
+    public JobService(JobRepository jobRepository, DataExportService dataExportService, AccountService accountService,
+                      MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.dataExportService = dataExportService;
+        this.accountService = accountService;
+        this.meterRegistry = meterRegistry;
+        this.succeededCounter = meterRegistry.counter("dailyrise.jobs.finished", "result", "succeeded");
+        this.failedCounter = meterRegistry.counter("dailyrise.jobs.finished", "result", "failed");
+    }
+
+    /**
+     * Starts the worker pool once the properties are injected.
+     */
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "job-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("dailyrise.jobs.queue.size", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        Gauge.builder("dailyrise.jobs.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    /**
+     * Queues a job for a user, unless one of the same kind is already queued or running.
+     *
+     * @param userId The user the job works on.
+     * @param type The kind of job.
+     * @return The new job, or the active one of the same kind.
+     * @throws TooManyRequestsException If the job queue is full.
+     */
+    public Job submit(Long userId, Job.Type type) {
+        Job active = jobRepository.findFirstByUserIdAndTypeAndStatusInOrderByIdDesc(userId, type, ACTIVE);
+        if (active != null) {
+            return active;
+        }
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new TooManyRequestsException("Too many background jobs, retry later.");
+        }
+        Job job = jobRepository.save(new Job(userId, type, Instant.now()));
+        try {
+            executor.execute(() -> run(job.getId()));
+        } catch (RejectedExecutionException e) {
+            jobRepository.finish(job.getId(), Job.Status.FAILED, Instant.now(), "Job queue full", null);
+            throw new TooManyRequestsException("Too many background jobs, retry later.");
+        }
+        return job;
+    }
+
+    /**
+     * Retrieves a job of a user.
+     *
+     * @throws InformationNotFoundException If the job does not exist or belongs to another user.
+     */
+    public Job getJob(Long userId, Long jobId) {
+        Job job = jobRepository.findByIdAndUserId(jobId, userId);
+        if (job == null) {
+            throw new InformationNotFoundException("Job with id " + jobId + " not found.");
+        }
+        return job;
+    }
+
+    /**
+     * Retrieves the file of a finished export of a user.
+     *
+     * @return The gzipped export.
+     * @throws InformationNotFoundException If the job is not a finished export of the user, or its file was replaced by a newer export.
+     */
+    public Path getExportFile(Long userId, Long jobId) {
+        Job job = getJob(userId, jobId);
+        if (job.getType() != Job.Type.EXPORT || job.getStatus() != Job.Status.SUCCEEDED || job.getResultPath() == null
+                || !Files.exists(Path.of(job.getResultPath()))) {
+            throw new InformationNotFoundException("No export available for job " + jobId + ".");
+        }
+        return Path.of(job.getResultPath());
+    }
+
+    /**
+     * Runs again the jobs interrupted by the last shutdown, oldest first.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobs() {
+        int interrupted = jobRepository.requeueRunning();
+        int resumed = 0;
+        for (Job job : jobRepository.findByStatusOrderByIdAsc(Job.Status.QUEUED)) {
+            try {
+                executor.execute(() -> run(job.getId()));
+                resumed++;
+            } catch (RejectedExecutionException e) {
+                break; //the rest stay queued until the next startup
+            }
+        }
+        if (resumed > 0) {
+            logger.info("Resumed " + resumed + " queued job(s), " + interrupted + " of them interrupted while running");
+        }
+    }
+
+    private void run(Long jobId) {
+        if (jobRepository.start(jobId, Instant.now()) == 0) {
+            return; //started by another worker or already finished
+        }
+        Job job = jobRepository.findById(jobId).orElseThrow();
+        try {
+            String resultPath = switch (job.getType()) {
+                case EXPORT -> export(job);
+                case ACCOUNT_DELETION -> deleteAccount(job);
+            };
+            jobRepository.finish(jobId, Job.Status.SUCCEEDED, Instant.now(), null, resultPath);
+            succeededCounter.increment();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Job " + job + " failed", e);
+            String error = String.valueOf(e.getMessage());
+            jobRepository.finish(jobId, Job.Status.FAILED, Instant.now(), error.substring(0, Math.min(error.length(), 1000)), null);
+            failedCounter.increment();
+        }
+    }
+
+    /**
+     * Writes the export to a temporary file, then moves it in place and deletes the user's previous export.
+     *
+     * @return The path of the export.
+     */
+    private String export(Job job) throws IOException {
+        Long total = dataExportService.countPractices(job.getUserId());
+        jobRepository.updateProgress(job.getId(), 0, total);
+        Files.createDirectories(exportDirectory);
+        Path temporary = exportDirectory.resolve("export-" + job.getId() + ".ndjson.gz.part");
+        Path target = exportDirectory.resolve("export-" + job.getId() + ".ndjson.gz");
+        long written;
+        try (OutputStream outputStream = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)), 64 * 1024)) {
+            written = dataExportService.export(job.getUserId(), outputStream,
+                    processed -> jobRepository.updateProgress(job.getId(), processed, total));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        jobRepository.updateProgress(job.getId(), written, total);
+        deleteExports(job.getUserId(), job.getId());
+        return target.toString();
+    }
+
+    /**
+     * Deletes the export files of a user and clears their paths, except that of the given job.
+     */
+    private void deleteExports(Long userId, Long keptJobId) throws IOException {
+        for (Job export : jobRepository.findByUserIdAndTypeAndResultPathNotNullAndIdNot(userId, Job.Type.EXPORT, keptJobId)) {
+            Files.deleteIfExists(Path.of(export.getResultPath()));
+            jobRepository.clearResultPath(export.getId());
+        }
+    }
+
+    /**
+     * Deletes the user's exports, then the practices chunk by chunk, recording progress after each, then everything
+     * else at once. Exports are deleted again at the end, in case one finished in the meantime.
+     *
+     * @return null, a deletion has no result.
+     */
+    private String deleteAccount(Job job) throws IOException {
+        deleteExports(job.getUserId(), job.getId());
+        Long total = dataExportService.countPractices(job.getUserId());
+        long deleted = 0;
+        int chunk;
+        while ((chunk = accountService.deletePracticeChunk(job.getUserId(), deletionChunkSize)) > 0) {
+            deleted += chunk;
+            jobRepository.updateProgress(job.getId(), deleted, total);
+        }
+        try {
+            accountService.deleteAccount(job.getUserId());
+        } catch (InformationNotFoundException e) {
+            //deleted by an earlier run that stopped before recording it
+        }
+        deleteExports(job.getUserId(), job.getId());
+        return null;
+    }
+
+    /**
+     * Stops the workers when the application context closes; their jobs are resumed at the next startup.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.service;
+
+import com.example.exception.InvalidRequestException;
+import com.example.exception.VersionConflictException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Applies a JSON merge-patch (RFC 7396) to an entity through a fixed set of patchable properties.<br>
+ * The getters and setters are plain method references bound once when the applier is built,
+ * so applying a patch neither scans fields nor boxes values that are not in the patch.
+ * Read-only keys of the entity's representation (id, version, collections) are ignored, so that a
+ * client may send back what it read; any other key is rejected.
+ * An optional version key is checked against the entity's version by {@link #checkVersion(Map, Long)}.
+ *
+ * @param <T> The patched entity type.
+ * @version 1.2.0
+ */
+public final class PatchApplier<T> {
+    private final Map<String, Property<T, ?>> properties;
+    private final Set<String> readOnly;
+
+    private PatchApplier(Map<String, Property<T, ?>> properties, Set<String> readOnly) {
+        this.properties = Collections.unmodifiableMap(properties);
+        this.readOnly = Set.copyOf(readOnly);
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Copies the values of the patch onto the target, skipping values that are already equal.
+     * A null value clears the property, unless the property is required.
+     *
+     * @param target The managed entity to update.
+     * @param patch The parsed merge-patch document.
+     * @return true if at least one property changed.
+     * @throws InvalidRequestException If a key is unknown, a value has the wrong type or clears a required property.
+     */
+    public boolean apply(T target, Map<String, Object> patch) {
+        boolean changed = false;
+        for (Map.Entry<String, Object> entry : patch.entrySet()) {
+            Property<T, ?> property = properties.get(entry.getKey());
+            if (property != null) {
+                changed |= property.apply(target, entry.getValue());
+            } else if (!readOnly.contains(entry.getKey())) {
+                throw new InvalidRequestException("Unknown property " + entry.getKey());
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Rejects a patch that was written against another version of the entity than the current one.
+     * A patch without a version key is always accepted.
+     *
+     * @param patch The parsed merge-patch document.
+     * @param currentVersion The version of the entity as loaded.
+     * @throws VersionConflictException If the patch names another version.
+     * @throws InvalidRequestException If the version is not a number.
+     */
+    public static void checkVersion(Map<String, Object> patch, Long currentVersion) {
+        Object version = patch.get("version");
+        if (version == null) {
+            return;
+        }
+        if (!(version instanceof Number number)) {
+            throw new InvalidRequestException("version must be a number");
+        }
+        if (number.longValue() != currentVersion) {
+            throw new VersionConflictException("Version " + number + " is outdated, the current version is " + currentVersion);
+        }
+    }
+
+    private record Property<T, V>(String name, Function<T, V> getter, BiConsumer<T, V> setter,
+                                  Function<Object, V> converter, boolean required) {
+
+        boolean apply(T target, Object value) {
+            V newValue = value == null ? null : converter.apply(value);
+            if (newValue == null && required) {
+                throw new InvalidRequestException(name + " must not be null");
+            }
+            if (Objects.equals(getter.apply(target), newValue)) {
+                return false;
+            }
+            setter.accept(target, newValue);
+            return true;
+        }
+    }
+
+    public static final class Builder<T> {
+        private final Map<String, Property<T, ?>> properties = new LinkedHashMap<>();
+        private final Set<String> readOnly = new HashSet<>(Set.of("version"));
+
+        private Builder() {
+        }
+
+        public Builder<T> string(String name, Function<T, String> getter, BiConsumer<T, String> setter, boolean required) {
+            return property(name, getter, setter, value -> convert(name, value, String.class), required);
+        }
+
+        public Builder<T> bool(String name, Function<T, Boolean> getter, BiConsumer<T, Boolean> setter) {
+            return property(name, getter, setter, value -> convert(name, value, Boolean.class), true);
+        }
+
+        public Builder<T> date(String name, Function<T, LocalDate> getter, BiConsumer<T, LocalDate> setter, boolean required) {
+            return property(name, getter, setter, value -> {
+                try {
+                    return LocalDate.parse(convert(name, value, String.class));
+                } catch (DateTimeParseException e) {
+                    throw new InvalidRequestException(name + " must be an ISO date (yyyy-MM-dd)");
+                }
+            }, required);
+        }
+
+        public <V> Builder<T> property(String name, Function<T, V> getter, BiConsumer<T, V> setter,
+                                       Function<Object, V> converter, boolean required) {
+            properties.put(name, new Property<>(name, getter, setter, converter, required));
+            return this;
+        }
+
+        /**
+         * Names keys that the entity's representation holds but a patch cannot change; they are ignored.
+         * The version key is always one of them.
+         */
+        public Builder<T> readOnly(String... names) {
+            readOnly.addAll(Arrays.asList(names));
+            return this;
+        }
+
+        public PatchApplier<T> build() {
+            return new PatchApplier<>(new LinkedHashMap<>(properties), readOnly);
+        }
+
+        private static <V> V convert(String name, Object value, Class<V> type) {
+            if (!type.isInstance(value)) {
+                throw new InvalidRequestException(name + " must be a " + type.getSimpleName().toLowerCase());
+            }
+            return type.cast(value);
+        }
+    }
+}
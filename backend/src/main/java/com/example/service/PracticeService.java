@@ -1,32 +1,84 @@
 package com.example.service;
 
+import com.example.exception.InformationExistException;
 import com.example.exception.InformationNotFoundException;
+import com.example.exception.InvalidRequestException;
+import com.example.exception.VersionConflictException;
 import com.example.model.Habit;
 import com.example.model.PracticeTracker;
+import com.example.model.SyncChange;
 import com.example.model.User;
+import com.example.model.projection.HabitDay;
+import com.example.model.request.PracticeCheckIn;
+import com.example.model.response.CursorPage;
+import com.example.model.response.PracticeCheckInResult;
 import com.example.repository.PracticeRepository;
-import com.example.security.MyUserDetails;
+import com.example.security.CurrentUser;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  * Service class handling business logic related to the practice tracker.
  * <p>
  * Acts as an intermediary between the controller and the practice repository, and the category service.
+ * Every write records a change in the user's sync state and change log, which drive conditional GETs and delta syncs.
  * </p>
- * @version 1.0.0
+ * @version 1.6.0
  */
 @Service
+@Timed(value = "dailyrise.service", description = "Time spent in each service method")
 public class PracticeService {
+    /**
+     * The largest page a client may request.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+    /**
+     * The largest number of check-ins accepted by a single batch check-in.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+    /**
+     * The properties of a practice that can be changed through updatePractice.
+     */
+    public static final PatchApplier<PracticeTracker> PRACTICE_PATCH = PatchApplier.<PracticeTracker>builder()
+            .bool("done", PracticeTracker::isDone, PracticeTracker::setDone)
+            .date("date", PracticeTracker::getDate, PracticeTracker::setDate, true)
+            .readOnly("id")
+            .build();
     private final PracticeRepository practiceRepository;
     private final CategoryService categoryService;
+    private final HabitSummaryService habitSummaryService;
+    private final SyncStateService syncStateService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter streamWriter;
+    private final EntityManager entityManager;
     Logger logger = Logger.getLogger(PracticeTracker.class.getName());
 
     /**
@@ -34,21 +86,22 @@ public class PracticeService {
      *
      * @param practiceRepository Repository for practice-related CRUD operations.
      * @param categoryService Service for category-related business logic.
+     * @param habitSummaryService Service maintaining the habit summaries on every practice write.
+     * @param syncStateService Service recording every change of the user's collections.
+     * @param objectMapper Serializes practices when streaming them.
+     * @param entityManager Used to detach streamed practices once written.
      */
     @Autowired
-    public PracticeService(PracticeRepository practiceRepository, CategoryService categoryService) {
+    public PracticeService(PracticeRepository practiceRepository, CategoryService categoryService,
+                           HabitSummaryService habitSummaryService, SyncStateService syncStateService,
+                           ObjectMapper objectMapper, EntityManager entityManager) {
         this.practiceRepository = practiceRepository;
         this.categoryService = categoryService;
-    }
-
-    /**
-     * Extracts usr information from context holder
-     * @return User object
-     */
-    public static User getCurrentLoggedInUser(){
-        MyUserDetails userDetails = (MyUserDetails) SecurityContextHolder //After jwt is generated, Security Context Holder is created to hold the user's state
-                .getContext().getAuthentication().getPrincipal(); // the entire User object, with authentication details
-        return userDetails.getUser();
+        this.habitSummaryService = habitSummaryService;
+        this.syncStateService = syncStateService;
+        this.objectMapper = objectMapper;
+        this.streamWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE); //lets the generator buffer rows
+        this.entityManager = entityManager;
     }
 
     /**
@@ -58,28 +111,120 @@ public class PracticeService {
      * @param practiceTracker PracticeTracker object containing practice details.
      * @return The recently created practice.
      */
+    @Transactional
     public PracticeTracker createPractice(Long habitId, PracticeTracker practiceTracker){
         Optional<Habit> habitOptional = Optional.ofNullable(categoryService.getHabitById(habitId));
         if (habitOptional.isPresent()){
             if (practiceTracker.getDate().isAfter(LocalDate.now())){
                 throw new IllegalArgumentException("Date must equal or before today's date");
             }
-            practiceTracker.setUser(getCurrentLoggedInUser());
+            practiceTracker.setUser(CurrentUser.get());
             practiceTracker.setHabit(habitOptional.get());
-            return practiceRepository.save(practiceTracker);
+            PracticeTracker savedPractice = saveAndFlush(practiceTracker);
+            if (savedPractice.isDone()){
+                habitSummaryService.recordDone(habitId, savedPractice.getDate());
+            }
+            syncStateService.recordChange(savedPractice.getUser().getId(), SyncChange.EntityType.PRACTICE, savedPractice.getId(), false);
+            return savedPractice;
         } else {
             throw new InformationNotFoundException("Habit with id " + habitId + " not found.");
         }
     }
 
     /**
-     * Retrieves a practices by given id.
+     * Creates many practices, possibly across habits, in one transaction.
+     * <p>
+     * Habit ownership is checked with one query and duplicates with another; the accepted practices are
+     * then inserted with JDBC batching. Each check-in gets its own result, so one bad entry does not reject the rest.
+     * </p>
+     * @param checkIns The check-ins to store, at most MAX_BATCH_SIZE.
+     * @return One result per check-in, in request order.
+     * @throws InvalidRequestException If the batch is empty or too large.
+     */
+    @Transactional
+    public List<PracticeCheckInResult> createPractices(List<PracticeCheckIn> checkIns){
+        if (checkIns == null || checkIns.isEmpty() || checkIns.size() > MAX_BATCH_SIZE){
+            throw new InvalidRequestException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " check-ins");
+        }
+        LocalDate today = LocalDate.now();
+        Set<Long> habitIds = new HashSet<>();
+        LocalDate from = null;
+        LocalDate to = null;
+        for (PracticeCheckIn checkIn : checkIns){
+            if (checkIn != null && checkIn.getHabitId() != null && checkIn.getDate() != null){
+                habitIds.add(checkIn.getHabitId());
+                from = from == null || checkIn.getDate().isBefore(from) ? checkIn.getDate() : from;
+                to = to == null || checkIn.getDate().isAfter(to) ? checkIn.getDate() : to;
+            }
+        }
+        Map<Long, Habit> habits = categoryService.getHabitsByIds(habitIds); //ownership check, one query
+        Set<String> takenDays = new HashSet<>(); //"habitId:date" of existing and accepted practices
+        if (!habits.isEmpty()){
+            for (HabitDay habitDay : practiceRepository.findHabitDaysBetween(habits.keySet(), from, to)){
+                takenDays.add(habitDay.getHabitId() + ":" + habitDay.getDate());
+            }
+        }
+
+        User user = CurrentUser.get();
+        List<PracticeCheckInResult> results = new ArrayList<>(checkIns.size());
+        List<PracticeTracker> practices = new ArrayList<>();
+        List<PracticeCheckInResult> createdResults = new ArrayList<>();
+        Map<Long, List<LocalDate>> doneDatesByHabit = new TreeMap<>();
+        for (int i = 0; i < checkIns.size(); i++){
+            PracticeCheckIn checkIn = checkIns.get(i);
+            if (checkIn == null || checkIn.getHabitId() == null || checkIn.getDate() == null){
+                results.add(new PracticeCheckInResult(i, null, null).status(PracticeCheckInResult.Status.INVALID, "habitId and date are required"));
+                continue;
+            }
+            PracticeCheckInResult result = new PracticeCheckInResult(i, checkIn.getHabitId(), checkIn.getDate());
+            results.add(result);
+            Habit habit = habits.get(checkIn.getHabitId());
+            if (habit == null){
+                result.status(PracticeCheckInResult.Status.HABIT_NOT_FOUND, "Habit with id " + checkIn.getHabitId() + " not found.");
+            } else if (checkIn.getDate().isAfter(today)){
+                result.status(PracticeCheckInResult.Status.INVALID, "Date must equal or before today's date");
+            } else if (!takenDays.add(checkIn.getHabitId() + ":" + checkIn.getDate())){
+                result.status(PracticeCheckInResult.Status.DUPLICATE, "Practice on " + checkIn.getDate() + " already exists.");
+            } else {
+                PracticeTracker practice = new PracticeTracker(null, checkIn.isDone(), checkIn.getDate(), habit);
+                practice.setUser(user);
+                practices.add(practice);
+                createdResults.add(result);
+                if (checkIn.isDone()){
+                    doneDatesByHabit.computeIfAbsent(habit.getId(), id -> new ArrayList<>()).add(checkIn.getDate());
+                }
+            }
+        }
+
+        practiceRepository.saveAll(practices); //ids come from the sequence, the inserts are batched at flush
+        try {
+            practiceRepository.flush();
+        } catch (DataIntegrityViolationException e){ //another request checked in one of the same days meanwhile
+            throw new InformationExistException("A practice of this batch was checked in concurrently, retry the batch.");
+        }
+        for (int i = 0; i < practices.size(); i++){
+            createdResults.get(i).setPracticeId(practices.get(i).getId());
+            createdResults.get(i).status(PracticeCheckInResult.Status.CREATED, null);
+        }
+        doneDatesByHabit.forEach((habitId, dates) -> {
+            dates.sort(null);
+            habitSummaryService.recordDone(habitId, dates);
+        });
+        if (!practices.isEmpty()){
+            syncStateService.recordChanges(user.getId(), SyncChange.EntityType.PRACTICE,
+                    practices.stream().map(PracticeTracker::getId).toList(), false);
+        }
+        return results;
+    }
+
+    /**
+     * Retrieves a practice of the current user by given id.
      * @param practiceId The unique Practice Tracker id.
      * @return The practice object.
-     * @throws InformationNotFoundException If practice is not found.
+     * @throws InformationNotFoundException If practice is not found or belongs to another user.
      */
     public PracticeTracker getPracticeById(Long practiceId){
-        Optional<PracticeTracker> practiceOptional = practiceRepository.findById(practiceId);
+        Optional<PracticeTracker> practiceOptional = Optional.ofNullable(practiceRepository.findByIdAndUserId(practiceId, CurrentUser.get().getId()));
 
         if (practiceOptional.isPresent()){
             return practiceOptional.get();
@@ -95,20 +240,34 @@ public class PracticeService {
      * @throws InformationNotFoundException If list is empty.
      */
     public List<PracticeTracker> getPracticeByDate(LocalDate date){
-        List<PracticeTracker> practiceList = practiceRepository.findByDate(date);
+        List<PracticeTracker> practiceList = practiceRepository.findByUserIdAndDate(CurrentUser.get().getId(), date);
         if (practiceList.isEmpty()){
             throw new InformationNotFoundException("No practices found on " + date);
         }
         return practiceList;
     }
 
+    /**
+     * Retrieves the practices of the current user between two dates, both inclusive, oldest first.
+     * @param from The first date of the range.
+     * @param to The last date of the range.
+     * @return A list of practices, empty if there are none.
+     * @throws InvalidRequestException If from is after to.
+     */
+    public List<PracticeTracker> getPracticesBetween(LocalDate from, LocalDate to){
+        if (from.isAfter(to)){
+            throw new InvalidRequestException("from must not be after to");
+        }
+        return practiceRepository.findByUserIdAndDateBetweenOrderByDateAscIdAsc(CurrentUser.get().getId(), from, to);
+    }
+
     /**
      * Retrieves a list of practices associated with the current user.
      * @return A list of practices.
      * @throws InformationNotFoundException If list is empty.
      */
     public List<PracticeTracker> getAllPractices(){
-        List<PracticeTracker> practiceList = practiceRepository.findByUserId(getCurrentLoggedInUser().getId());
+        List<PracticeTracker> practiceList = practiceRepository.findByUserId(CurrentUser.get().getId());
         if (practiceList.isEmpty()){
             throw new InformationNotFoundException("No practices found.");
         }
@@ -116,34 +275,133 @@ public class PracticeService {
     }
 
     /**
-     * Updates the specified fields of a given practice using Java Reflection.
+     * Retrieves one page of the current user's practices, newest first.
+     *
+     * @param cursor The nextCursor of the previous page, or null for the first page.
+     * @param limit The maximum number of practices in the page, between 1 and MAX_PAGE_SIZE.
+     * @return The page and the cursor of the following one.
+     * @throws InvalidRequestException If the cursor or the limit is invalid.
+     */
+    public CursorPage<PracticeTracker> getPracticePage(String cursor, int limit){
+        if (limit < 1 || limit > MAX_PAGE_SIZE){
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Long userId = CurrentUser.get().getId();
+        PageRequest pageRequest = PageRequest.ofSize(limit);
+        List<PracticeTracker> practiceList;
+        if (cursor == null){
+            practiceList = practiceRepository.findFirstPageByUserId(userId, pageRequest);
+        } else {
+            String[] position = decodeCursor(cursor);
+            try {
+                practiceList = practiceRepository.findPageByUserIdAfter(userId, LocalDate.parse(position[0]), Long.valueOf(position[1]), pageRequest);
+            } catch (DateTimeParseException | NumberFormatException e){
+                throw new InvalidRequestException("Invalid cursor " + cursor);
+            }
+        }
+        String nextCursor = null;
+        if (practiceList.size() == limit){ // a full page, there may be more
+            PracticeTracker last = practiceList.get(practiceList.size() - 1);
+            nextCursor = encodeCursor(last.getDate() + ":" + last.getId());
+        }
+        return new CursorPage<>(practiceList, nextCursor);
+    }
+
+    /**
+     * Writes all practices of a user as newline-delimited JSON, one row at a time.
      * <p>
-     * Only the necessary fields of the class are updated.
+     * Rows are read through a database cursor and detached once written, so memory use does not grow with history length.
      * </p>
-     * @param practice Practice Tracker object with the updated properties.
-     * @return The updated object.
+     * @param userId The owner of the practices. Resolved by the caller, since this may run outside the request thread.
+     * @param outputStream Where to write the practices.
+     * @throws IOException If writing to the output stream fails.
+     */
+    @Transactional(readOnly = true)
+    public void streamPractices(Long userId, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+        try (Stream<PracticeTracker> practices = practiceRepository.streamByUserId(userId)) {
+            Iterator<PracticeTracker> iterator = practices.iterator();
+            while (iterator.hasNext()) {
+                PracticeTracker practice = iterator.next();
+                streamWriter.writeValue(generator, practice);
+                generator.writeRaw('\n');
+                entityManager.detach(practice); //keeps the persistence context from growing
+            }
+        }
+        generator.flush();
+    }
+
+    private static String encodeCursor(String position){
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The cursor split into its date and id parts.
+     * @throws InvalidRequestException If the cursor is malformed.
      */
-    public PracticeTracker updatePractice(PracticeTracker practice) throws IllegalAccessException {
-        Optional<PracticeTracker> practiceOptional = practiceRepository.findById(practice.getId());
-        if (practice.getDate().isAfter(LocalDate.now())){
-            throw new IllegalArgumentException("Date must equal or before today's date");
+    private static String[] decodeCursor(String cursor){
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (position.length == 2){
+                return position;
+            }
+        } catch (IllegalArgumentException e){
+            // falls through to the error below
         }
+        throw new InvalidRequestException("Invalid cursor " + cursor);
+    }
+
+    /**
+     * Applies a JSON merge-patch to a practice.
+     * <p>
+     * Only done and date can be patched; other keys such as the id or the habit are ignored.
+     * Unchanged values are not written.
+     * If the patch holds the version the client read, it is rejected once the practice changed since.
+     * </p>
+     * @param practiceId The unique practice Id.
+     * @param patch The parsed merge-patch document.
+     * @return The updated object.
+     * @throws InvalidRequestException If a key is unknown, a value has the wrong type, is null, or the date is in the future.
+     * @throws VersionConflictException If the practice changed since the client read it.
+     */
+    @Transactional
+    public PracticeTracker updatePractice(Long practiceId, Map<String, Object> patch) {
+        Optional<PracticeTracker> practiceOptional = Optional.ofNullable(practiceRepository.findByIdAndUserId(practiceId, CurrentUser.get().getId()));
         if (practiceOptional.isPresent()){
-            try {
-                for (Field field : PracticeTracker.class.getDeclaredFields()) { //loop through class fields
-                    field.setAccessible(true); //make private fields accessible
-                    Object newValue = field.get(practice);
-                    Object originalValue = field.get(practiceOptional.get());
-                    if (newValue != null && !newValue.equals(originalValue)) { //if not null and different from original
-                        field.set(practiceOptional.get(), newValue);
-                    }
-                }
-                return practiceRepository.save(practiceOptional.get());
-            } catch (IllegalArgumentException e){
-                throw new IllegalAccessException(e.getMessage());
+            PracticeTracker practice = practiceOptional.get();
+            boolean wasDone = practice.isDone();
+            LocalDate originalDate = practice.getDate();
+            PatchApplier.checkVersion(patch, practice.getVersion());
+            if (!PRACTICE_PATCH.apply(practice, patch)) {
+                return practice;
+            }
+            if (practice.getDate().isAfter(LocalDate.now())){
+                throw new InvalidRequestException("Date must equal or before today's date");
             }
+            PracticeTracker savedPractice = saveAndFlush(practice);
+            updateSummary(savedPractice, wasDone, originalDate);
+            syncStateService.recordChange(savedPractice.getUser().getId(), SyncChange.EntityType.PRACTICE, practiceId, false);
+            return savedPractice;
         } else {
-            throw new InformationNotFoundException("Practice with id " + practice.getId() + "not found.");
+            throw new InformationNotFoundException("Practice with id " + practiceId + " not found.");
+        }
+    }
+
+    /**
+     * Writes a practice immediately, so that the unique (habit_id, date) constraint is checked here
+     * rather than at commit, and so is the version of an updated practice.
+     *
+     * @throws InformationExistException If the habit already has a practice on that date.
+     * @throws VersionConflictException If the practice was changed concurrently.
+     */
+    private PracticeTracker saveAndFlush(PracticeTracker practice){
+        try {
+            return practiceRepository.saveAndFlush(practice);
+        } catch (DataIntegrityViolationException e){
+            throw new InformationExistException("Practice on " + practice.getDate() + " already exists.");
+        } catch (ObjectOptimisticLockingFailureException e){
+            throw new VersionConflictException("Practice with id " + practice.getId() + " was changed concurrently.");
         }
     }
 
@@ -152,15 +410,35 @@ public class PracticeService {
      *
      * @param practiceId The unique Practice Tracker Id.
      * @return The deleted Practice.
-     * @throws InformationNotFoundException If practice is not found.
+     * @throws InformationNotFoundException If practice is not found or belongs to another user.
      */
+    @Transactional
     public Optional<PracticeTracker> deletePractice(Long practiceId) {
-        Optional<PracticeTracker> practiceOptional = practiceRepository.findById(practiceId);
+        Optional<PracticeTracker> practiceOptional = Optional.ofNullable(practiceRepository.findByIdAndUserId(practiceId, CurrentUser.get().getId()));
         if (practiceOptional.isPresent()) {
             practiceRepository.deleteById(practiceId);
+            if (practiceOptional.get().isDone()) {
+                practiceRepository.flush(); //the recomputation must not see the deleted row
+                habitSummaryService.recompute(practiceOptional.get().getHabit().getId());
+            }
+            syncStateService.recordChange(practiceOptional.get().getUser().getId(), SyncChange.EntityType.PRACTICE, practiceId, true);
             return practiceOptional;
         } else {
             throw new InformationNotFoundException("practice with id " + practiceId + " not found");
         }
     }
+
+    /**
+     * Brings the habit summary in line with an updated practice.
+     * Marking a practice done is applied incrementally; any other change recomputes the summary.
+     */
+    private void updateSummary(PracticeTracker practice, boolean wasDone, LocalDate originalDate){
+        Long habitId = practice.getHabit().getId();
+        if (!wasDone && practice.isDone()){
+            habitSummaryService.recordDone(habitId, practice.getDate());
+        } else if (wasDone && (!practice.isDone() || !practice.getDate().equals(originalDate))){
+            practiceRepository.flush(); //the recomputation reads the updated row
+            habitSummaryService.recompute(habitId);
+        }
+    }
 }
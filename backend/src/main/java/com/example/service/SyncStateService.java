@@ -0,0 +1,257 @@
+package com.example.service;
+
+import com.example.events.ChangeEvent;
+import com.example.model.Category;
+import com.example.model.Habit;
+import com.example.model.PracticeTracker;
+import com.example.model.SyncChange;
+import com.example.model.SyncState;
+import com.example.model.response.SyncEntry;
+import com.example.repository.CategoryRepository;
+import com.example.repository.HabitRepository;
+import com.example.repository.PracticeRepository;
+import com.example.repository.SyncChangeRepository;
+import com.example.repository.SyncStateRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Service class maintaining the {@link SyncState} and the change log of every user.
+ * <p>
+ * Every write to a category, habit or practice calls {@link #recordChange} or {@link #recordChanges} inside its
+ * own transaction: the user's revision is incremented, one {@link SyncChange} per entity is logged with it,
+ * and a {@link ChangeEvent} is published for the user's open event streams.
+ * Conditional GETs compare the client's ETag or If-Modified-Since against {@link #getSyncState(Long)},
+ * a primary-key lookup; delta syncs stream the log entries after the client's revision.
+ * </p>
+ * @version 1.2.0
+ */
+@Service
+public class SyncStateService {
+    /**
+     * The number of log entries whose entities are loaded together while streaming.
+     */
+    static final int STREAM_CHUNK_SIZE = 256;
+
+    private final SyncStateRepository syncStateRepository;
+    private final SyncChangeRepository syncChangeRepository;
+    private final CategoryRepository categoryRepository;
+    private final HabitRepository habitRepository;
+    private final PracticeRepository practiceRepository;
+    private final ObjectWriter streamWriter;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Injects dependencies and enables syncStateService to access resources.
+     *
+     * @param syncStateRepository Repository storing the sync states.
+     * @param syncChangeRepository Repository storing the change log.
+     * @param categoryRepository Loads the changed categories when streaming.
+     * @param habitRepository Loads the changed habits when streaming.
+     * @param practiceRepository Loads the changed practices when streaming.
+     * @param objectMapper Serializes the streamed entries.
+     * @param entityManager Used to release streamed entities once written.
+     * @param eventPublisher Publishes every recorded change, delivered after commit.
+     */
+    @Autowired
+    public SyncStateService(SyncStateRepository syncStateRepository, SyncChangeRepository syncChangeRepository,
+                            CategoryRepository categoryRepository, HabitRepository habitRepository,
+                            PracticeRepository practiceRepository, ObjectMapper objectMapper, EntityManager entityManager,
+                            ApplicationEventPublisher eventPublisher) {
+        this.syncStateRepository = syncStateRepository;
+        this.syncChangeRepository = syncChangeRepository;
+        this.categoryRepository = categoryRepository;
+        this.habitRepository = habitRepository;
+        this.practiceRepository = practiceRepository;
+        this.objectMapper = objectMapper;
+        this.streamWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE); //lets the generator buffer rows
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Creates the sync state of a newly registered user.
+     *
+     * @param userId The new user.
+     */
+    @Transactional
+    public void createSyncState(Long userId) {
+        syncStateRepository.save(new SyncState(userId, 0, Instant.now()));
+    }
+
+    /**
+     * Retrieves the sync state of a user.
+     *
+     * @param userId The user.
+     * @return The sync state; revision 0 at the epoch for a user who never changed anything.
+     */
+    public SyncState getSyncState(Long userId) {
+        return syncStateRepository.findById(userId).orElseGet(() -> new SyncState(userId, 0, Instant.EPOCH));
+    }
+
+    /**
+     * Records that one entity of a user was created, updated or deleted, in the caller's transaction.
+     *
+     * @param userId The owner of the entity.
+     * @param type The kind of entity.
+     * @param entityId The entity's id.
+     * @param deleted true if the entity was deleted.
+     * @return The new revision.
+     */
+    @Transactional
+    public long recordChange(Long userId, SyncChange.EntityType type, Long entityId, boolean deleted) {
+        return recordChanges(userId, type, List.of(entityId), deleted);
+    }
+
+    /**
+     * Records that several entities of the same kind changed together, under a single revision.
+     * A user created before sync states existed gets one at their first change.
+     *
+     * @param userId The owner of the entities.
+     * @param type The kind of entities.
+     * @param entityIds The entities' ids.
+     * @param deleted true if the entities were deleted.
+     * @return The new revision.
+     */
+    @Transactional
+    public long recordChanges(Long userId, SyncChange.EntityType type, Collection<Long> entityIds, boolean deleted) {
+        Instant now = Instant.now();
+        long revision;
+        if (syncStateRepository.increment(userId, now) == 0) {
+            syncStateRepository.save(new SyncState(userId, 1, now));
+            revision = 1;
+        } else {
+            revision = syncStateRepository.findRevisionByUserId(userId);
+        }
+        List<SyncChange> changes = new ArrayList<>(entityIds.size());
+        for (Long entityId : entityIds) {
+            changes.add(new SyncChange(userId, revision, type, entityId, deleted, now));
+        }
+        syncChangeRepository.saveAll(changes); //inserted in batches at flush
+        eventPublisher.publishEvent(new ChangeEvent(userId, revision, type, List.copyOf(entityIds), deleted)); //pushed after commit
+        return revision;
+    }
+
+    /**
+     * Writes the changes of a user with a revision in (since, upTo] as newline-delimited JSON, oldest first.
+     * <p>
+     * Log entries are read through a database cursor; the entities they point to are loaded in chunks of
+     * STREAM_CHUNK_SIZE, one query per kind. An entity deleted in the meantime is skipped, its tombstone
+     * comes with a later revision.
+     * </p>
+     * @param userId The user. Resolved by the caller, since this may run outside the request thread.
+     * @param since The last revision the client applied.
+     * @param upTo The revision the client will be at afterwards, read before the stream starts.
+     * @param outputStream Where to write the entries.
+     * @throws IOException If writing to the output stream fails.
+     */
+    @Transactional(readOnly = true)
+    public void streamChanges(Long userId, long since, long upTo, OutputStream outputStream) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.setRootValueSeparator(null);
+        try (Stream<SyncChange> changes = syncChangeRepository.streamByUserIdBetween(userId, since, upTo)) {
+            Iterator<SyncChange> iterator = changes.iterator();
+            List<SyncChange> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                    writeChunk(chunk, generator);
+                    chunk.clear();
+                    entityManager.clear(); //keeps the persistence context from growing
+                }
+            }
+        }
+        generator.flush();
+    }
+
+    private void writeChunk(List<SyncChange> chunk, JsonGenerator generator) throws IOException {
+        Map<SyncChange.EntityType, Set<Long>> idsByType = new EnumMap<>(SyncChange.EntityType.class);
+        for (SyncChange change : chunk) {
+            if (!change.isDeleted()) {
+                idsByType.computeIfAbsent(change.getEntityType(), type -> new HashSet<>()).add(change.getEntityId());
+            }
+        }
+        Map<SyncChange.EntityType, Map<Long, Map<String, Object>>> entities = new EnumMap<>(SyncChange.EntityType.class);
+        entities.put(SyncChange.EntityType.CATEGORY, load(idsByType.get(SyncChange.EntityType.CATEGORY), categoryRepository::findAllById, Category::getId, SyncStateService::flatten));
+        entities.put(SyncChange.EntityType.HABIT, load(idsByType.get(SyncChange.EntityType.HABIT), habitRepository::findAllById, Habit::getId, SyncStateService::flatten));
+        entities.put(SyncChange.EntityType.PRACTICE, load(idsByType.get(SyncChange.EntityType.PRACTICE), practiceRepository::findAllById, PracticeTracker::getId, SyncStateService::flatten));
+        for (SyncChange change : chunk) {
+            Map<String, Object> entity = change.isDeleted() ? null : entities.get(change.getEntityType()).get(change.getEntityId());
+            if (change.isDeleted() || entity != null) {
+                streamWriter.writeValue(generator, new SyncEntry(change.getRevision(), change.getEntityType(),
+                        change.getEntityId(), change.isDeleted(), entity));
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private static <T> Map<Long, Map<String, Object>> load(Set<Long> ids, Function<Set<Long>, List<T>> finder,
+                                                           Function<T, Long> idGetter, Function<T, Map<String, Object>> flattener) {
+        Map<Long, Map<String, Object>> entities = new HashMap<>();
+        if (ids != null) {
+            for (T entity : finder.apply(ids)) {
+                entities.put(idGetter.apply(entity), flattener.apply(entity));
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * The columns of an entity as clients receive them, in a delta sync or a data export.
+     */
+    static Map<String, Object> flatten(Category category) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("id", category.getId());
+        columns.put("name", category.getName());
+        columns.put("description", category.getDescription());
+        columns.put("version", category.getVersion());
+        return columns;
+    }
+
+    static Map<String, Object> flatten(Habit habit) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("id", habit.getId());
+        columns.put("name", habit.getName());
+        columns.put("trigger", habit.getTrigger());
+        columns.put("outcome", habit.getOutcome());
+        columns.put("routine", habit.getRoutine());
+        columns.put("version", habit.getVersion());
+        columns.put("categoryId", habit.getCategory().getId()); //id of the lazy proxy, no query
+        return columns;
+    }
+
+    static Map<String, Object> flatten(PracticeTracker practice) {
+        Map<String, Object> columns = new LinkedHashMap<>();
+        columns.put("id", practice.getId());
+        columns.put("done", practice.isDone());
+        columns.put("date", practice.getDate());
+        columns.put("version", practice.getVersion());
+        columns.put("habitId", practice.getHabit().getId());
+        return columns;
+    }
+}
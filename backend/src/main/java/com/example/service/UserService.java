@@ -2,9 +2,12 @@ package com.example.service;
 
 import com.example.exception.InformationExistException;
 import com.example.exception.InformationNotFoundException;
+import com.example.exception.TooManyRequestsException;
 import com.example.model.Profile;
 import com.example.model.User;
+import com.example.model.projection.UserCredentials;
 import com.example.model.request.LoginRequest;
+import com.example.model.response.LoginResponse;
 import com.example.repository.UserRepository;
 import com.example.security.JWTUtils;
 import com.example.security.MyUserDetails;
@@ -13,7 +16,6 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -25,7 +27,7 @@ import java.util.Optional;
  * This class serves as an intermediary between the controller and the repository,
  * invoking the repository to perform CRUD operations on users.
  *
- * @version 1.4.2
+ * @version 1.8.0
  */
 @Service
 public class UserService {
@@ -33,6 +35,8 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final JWTUtils jwtUtils;
     private final AuthenticationManager authenticationManager;
+    private final RefreshTokenService refreshTokenService;
+    private final SyncStateService syncStateService;
 
     /**
      * Injects dependencies and enables userService to access the resources.
@@ -41,15 +45,21 @@ public class UserService {
      * @param passwordEncoder The encoder used for password hashing.
      * @param jwtUtils The utility class for JWT token generation and validation.
      * @param authenticationManager Manages authentication within the security context.
+     * @param refreshTokenService Issues the refresh token returned with every login.
+     * @param syncStateService Creates the sync state of a new user.
      */
     @Autowired
     public UserService(UserRepository userRepository, @Lazy PasswordEncoder passwordEncoder,
                        JWTUtils jwtUtils,
-                       @Lazy AuthenticationManager authenticationManager) { //@LAZY - loads as needed
+                       @Lazy AuthenticationManager authenticationManager,
+                       RefreshTokenService refreshTokenService,
+                       SyncStateService syncStateService) { //@LAZY - loads as needed
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtils = jwtUtils;
         this.authenticationManager = authenticationManager;
+        this.refreshTokenService = refreshTokenService;
+        this.syncStateService = syncStateService;
     }
 
     /**
@@ -57,13 +67,16 @@ public class UserService {
      * @param user User object containing details.
      * @return The registered User.
      * @throws InformationExistException If email is already registered.
+     * @throws TooManyRequestsException If the password hashing pool is saturated.
      */
     public User createUser(User user){
         Optional<User> userOptional = Optional.ofNullable(userRepository.findUserByEmailAddress(user.getEmailAddress())); //checks if email address already exists in database
         if (userOptional.isEmpty()){ // email not registered yet
             user.setPassword(passwordEncoder.encode(user.getPassword())); //encode password given
             user.setProfile(new Profile());
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            syncStateService.createSyncState(savedUser.getId());
+            return savedUser;
         } else {
             throw new InformationExistException("user with email address " + user.getEmailAddress() + " already exist.");
         }
@@ -72,17 +85,25 @@ public class UserService {
      * Authenticate a user based on the provided login request.
      *
      * @param loginRequest The login request with email and password.
-     * @return Optional JWT token if authentication is successful;
+     * <p>
+     * The password check runs on the bounded hashing pool of the password encoder. The security context
+     * is not set: the API is stateless and the next request authenticates with the returned token.
+     * The response also holds a refresh token, so that the client renews the JWT without its password.
+     * </p>
+     * @return Optional JWT and refresh token if authentication is successful;
      *         otherwise, an empty Optional.
+     * @throws TooManyRequestsException If the password hashing pool is saturated.
      */
-    public Optional<String> loginUser(LoginRequest loginRequest){
+    public Optional<LoginResponse> loginUser(LoginRequest loginRequest){
         UsernamePasswordAuthenticationToken authenticationToken = new
                 UsernamePasswordAuthenticationToken(loginRequest.getEmailAddress(), loginRequest.getPassword());
         try{
             Authentication authentication = authenticationManager.authenticate((authenticationToken)); //authenticate the user
-            SecurityContextHolder.getContext().setAuthentication(authentication); //set security context
             MyUserDetails myUserDetails = ( MyUserDetails ) authentication.getPrincipal(); //get user details from authenticated object
-            return Optional.of(jwtUtils.generateJwtToken(myUserDetails)); // generate a token for the authenticated user
+            String jwt = jwtUtils.generateJwtToken(myUserDetails); // generate a token for the authenticated user
+            return Optional.of(new LoginResponse(jwt, refreshTokenService.issue(myUserDetails.getUser().getId())));
+        } catch (TooManyRequestsException e) {
+            throw e; //overloaded, not a failed login
         } catch (Exception e) {
             return Optional.empty();
         }
@@ -99,6 +120,17 @@ public class UserService {
         return userRepository.findUserByEmailAddress(emailAddress);
     }
 
+    /**
+     * Finds the credentials of a user based on the provided email address, without loading the User entity.
+     *
+     * @param emailAddress The email address to search for.
+     * @return The id, email address and password hash of the user,
+     *         or null if no matching user is found.
+     */
+    public UserCredentials findUserCredentialsByEmailAddress(String emailAddress){
+        return userRepository.findCredentialsByEmailAddress(emailAddress);
+    }
+
     /**
      * Updates the user's profile with the provided details.
      *
@@ -0,0 +1,89 @@
+package com.example;
+
+import com.example.model.Job;
+import com.example.repository.JobRepository;
+import com.example.repository.PracticeRepository;
+import com.example.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers account deletion: the user and everything they own, exports included, is removed in the background,
+ * other users are untouched.
+ * Practices are deleted two per transaction here, so the chunked path runs more than once.
+ */
+@TestPropertySource(properties = "jobs.deletion-chunk-size=2")
+class AccountTests extends IntegrationTest {
+	private static final String EMAIL = "deleted-account@example.com";
+
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private PracticeRepository practiceRepository;
+	@Autowired
+	private JobRepository jobRepository;
+
+	private Job awaitJob(Long jobId) throws InterruptedException {
+		Job job = jobRepository.findById(jobId).orElseThrow();
+		for (int attempt = 0; attempt < 100 && job.getStatus() != Job.Status.SUCCEEDED && job.getStatus() != Job.Status.FAILED; attempt++) {
+			Thread.sleep(100);
+			job = jobRepository.findById(jobId).orElseThrow();
+		}
+		return job;
+	}
+
+	@Test
+	void deleteAccountRemovesTheUserAndTheirData() throws Exception {
+		JsonNode tokens = register(EMAIL);
+		String jwt = tokens.get("jwt").asText();
+		Long userId = userRepository.findUserByEmailAddress(EMAIL).getId();
+		long otherPractices = practiceRepository.count();
+
+		Long habitId = createHabit(jwt, "Fitness", "Push-ups");
+		for (int day = 1; day <= 3; day++) {
+			postJson("/api/habits/" + habitId + "/practices/", jwt,
+					"{\"done\":true,\"date\":\"" + LocalDate.now().minusDays(day) + "\"}");
+		}
+
+		String exported = mockMvc.perform(post("/api/jobs/export/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isAccepted())
+				.andReturn().getResponse().getContentAsString();
+		Long exportId = objectMapper.readTree(exported).get("id").asLong();
+		assertThat(awaitJob(exportId).getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+		Path exportFile = Path.of(jobRepository.findById(exportId).orElseThrow().getResultPath());
+		assertThat(exportFile).exists();
+
+		String accepted = mockMvc.perform(delete("/auth/users/account/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isAccepted())
+				.andReturn().getResponse().getContentAsString();
+		Job job = awaitJob(objectMapper.readTree(accepted).get("id").asLong());
+		assertThat(job.getStatus()).isEqualTo(Job.Status.SUCCEEDED);
+		assertThat(job.getProcessed()).isEqualTo(3);
+		assertThat(Files.exists(exportFile)).isFalse();
+		assertThat(jobRepository.findById(exportId).orElseThrow().getResultPath()).isNull();
+
+		assertThat(userRepository.existsById(userId)).isFalse();
+		assertThat(practiceRepository.findByUserId(userId)).isEmpty();
+		assertThat(practiceRepository.count()).isEqualTo(otherPractices);
+		performLogin(EMAIL).andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/auth/users/profile/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isForbidden()); // the principal cached by the requests above is gone
+		mockMvc.perform(post("/auth/users/refresh/")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"refreshToken\":\"" + tokens.get("refreshToken").asText() + "\"}"))
+				.andExpect(status().isUnauthorized());
+	}
+}
@@ -3,7 +3,10 @@ package com.example;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+		"jwt-secret=ZGFpbHlyaXNlLXN0YXRlbWVudC1jb3VudC10ZXN0cy1zZWNyZXQta2V5LTI1Ng==",
+		"jwt-expiration-ms=3600000"
+})
 class BackendApplicationTests {
 
 	@Test
@@ -0,0 +1,121 @@
+package com.example;
+
+import com.example.model.HabitSummary;
+import com.example.model.SyncChange;
+import com.example.repository.HabitSummaryRepository;
+import com.example.repository.PracticeRepository;
+import com.example.repository.SyncChangeRepository;
+import com.example.repository.UserRepository;
+import com.example.service.PracticeService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the batch check-in: each entry gets its own result, only the accepted ones are stored,
+ * and those update the habit summaries and the sync log like single check-ins do.
+ */
+class BatchCheckInTests extends IntegrationTest {
+	private static final String EMAIL = "batch@example.com";
+	private static final String OTHER_EMAIL = "batch-other@example.com";
+	private static final LocalDate TODAY = LocalDate.now();
+
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private PracticeRepository practiceRepository;
+	@Autowired
+	private HabitSummaryRepository habitSummaryRepository;
+	@Autowired
+	private SyncChangeRepository syncChangeRepository;
+
+	private String jwt;
+	private Long userId;
+	private Long habitId;
+	private Long otherHabitId;
+	private Long foreignHabitId;
+
+	@BeforeAll
+	void setUp() throws Exception {
+		jwt = register(EMAIL).get("jwt").asText();
+		userId = userRepository.findUserByEmailAddress(EMAIL).getId();
+		habitId = createHabit(jwt, "Fitness", "Push-ups");
+		otherHabitId = createHabit(jwt, "Mind", "Meditate");
+		foreignHabitId = createHabit(register(OTHER_EMAIL).get("jwt").asText(), "Fitness", "Squats");
+	}
+
+	private static String checkIn(Long habitId, LocalDate date, boolean done) {
+		return "{\"habitId\":" + habitId + ",\"date\":\"" + date + "\",\"done\":" + done + "}";
+	}
+
+	private List<Long> practiceChanges() {
+		return syncChangeRepository.findAll().stream()
+				.filter(change -> change.getUserId().equals(userId) && change.getEntityType() == SyncChange.EntityType.PRACTICE)
+				.map(SyncChange::getEntityId)
+				.toList();
+	}
+
+	@Test
+	void mixedBatchStoresOnlyTheAcceptedCheckIns() throws Exception {
+		Long storedId = postJson("/api/habits/" + habitId + "/practices/", jwt,
+				"{\"done\":true,\"date\":\"" + TODAY.minusDays(5) + "\"}").get("id").asLong();
+		String batch = "[" + String.join(",",
+				checkIn(habitId, TODAY.minusDays(3), true),
+				checkIn(habitId, TODAY.minusDays(2), true),
+				checkIn(habitId, TODAY.minusDays(3), false), // same habit and day as the first entry
+				checkIn(habitId, TODAY.minusDays(5), true), // already stored
+				checkIn(foreignHabitId, TODAY.minusDays(1), true), // another user's habit
+				checkIn(otherHabitId, TODAY.plusDays(1), true), // future date
+				checkIn(otherHabitId, TODAY.minusDays(1), false),
+				"{\"date\":\"" + TODAY + "\"}") + "]";
+
+		JsonNode results = postJson("/api/practices/batch/", jwt, batch);
+		List<String> statuses = new ArrayList<>();
+		results.forEach(result -> statuses.add(result.get("status").asText()));
+		assertThat(statuses).containsExactly("CREATED", "CREATED", "DUPLICATE", "DUPLICATE", "HABIT_NOT_FOUND", "INVALID", "CREATED", "INVALID");
+		for (int i = 0; i < results.size(); i++) {
+			assertThat(results.get(i).get("index").asInt()).isEqualTo(i);
+		}
+		List<Long> createdIds = List.of(results.get(0).get("practiceId").asLong(), results.get(1).get("practiceId").asLong(),
+				results.get(6).get("practiceId").asLong());
+		assertThat(results.get(2).get("practiceId").isNull()).isTrue();
+
+		assertThat(practiceRepository.countByUserId(userId)).isEqualTo(4);
+		assertThat(practiceRepository.findAllById(createdIds)).hasSize(3);
+		assertThat(habitSummaryRepository.findById(habitId).orElseThrow().sameCountersAs(
+				new HabitSummary(habitId, 2, 2, TODAY.minusDays(2), 3))).isTrue();
+		assertThat(habitSummaryRepository.findById(otherHabitId).orElseThrow().getTotalDone()).isZero();
+		assertThat(practiceChanges()).containsExactlyInAnyOrder(storedId, createdIds.get(0), createdIds.get(1), createdIds.get(2));
+		assertThat(practiceRepository.countByUserId(userRepository.findUserByEmailAddress(OTHER_EMAIL).getId())).isZero();
+	}
+
+	@Test
+	void emptyOrOversizedBatchIsRejected() throws Exception {
+		long practices = practiceRepository.countByUserId(userId);
+		List<String> checkIns = new ArrayList<>();
+		for (int day = 1; day <= PracticeService.MAX_BATCH_SIZE + 1; day++) {
+			checkIns.add(checkIn(otherHabitId, TODAY.minusDays(100 + day), true));
+		}
+		mockMvc.perform(post("/api/practices/batch/")
+						.header("Authorization", bearer(jwt))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[" + String.join(",", checkIns) + "]"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(post("/api/practices/batch/")
+						.header("Authorization", bearer(jwt))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("[]"))
+				.andExpect(status().isBadRequest());
+		assertThat(practiceRepository.countByUserId(userId)).isEqualTo(practices);
+	}
+}
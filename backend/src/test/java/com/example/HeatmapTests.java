@@ -0,0 +1,119 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the heatmap: JSON unless the client prefers the raw bitsets, and both carry the same done days.
+ */
+class HeatmapTests extends IntegrationTest {
+	private static final String EMAIL = "heatmap@example.com";
+
+	private static final List<Integer> DONE_DAYS = List.of(0, 7, 8, 21, 30); // days into the range
+
+	private final LocalDate from = LocalDate.now().minusDays(30);
+	private String jwt;
+	private Long habitId;
+	private Long idleHabitId;
+
+	@BeforeAll
+	void setUp() throws Exception {
+		jwt = register(EMAIL).get("jwt").asText();
+		habitId = createHabit(jwt, "Morning Routine", "Shower");
+		idleHabitId = createHabit(jwt, "Evening Routine", "Read");
+		for (int day : DONE_DAYS) {
+			postJson("/api/habits/" + habitId + "/practices/", jwt, "{\"done\":true,\"date\":\"" + from.plusDays(day) + "\"}");
+		}
+		postJson("/api/habits/" + habitId + "/practices/", jwt, "{\"done\":false,\"date\":\"" + from.plusDays(3) + "\"}");
+		postJson("/api/habits/" + habitId + "/practices/", jwt, "{\"done\":true,\"date\":\"" + from.minusDays(1) + "\"}");
+	}
+
+	private MockHttpServletRequestBuilder heatmap() {
+		return get("/api/habits/heatmap/?from=" + from + "&to=" + from.plusDays(30)).header("Authorization", bearer(jwt));
+	}
+
+	/**
+	 * @return The days of the range whose bit is set, bit i of byte j being day 8 * j + i.
+	 */
+	private static List<Integer> setDays(byte[] days) {
+		List<Integer> set = new ArrayList<>();
+		for (int day = 0; day < days.length * 8; day++) {
+			if ((days[day >>> 3] & (1 << (day & 7))) != 0) {
+				set.add(day);
+			}
+		}
+		return set;
+	}
+
+	@Test
+	void bitsetsAndJsonCarryTheDoneDays() throws Exception {
+		byte[] encoded = mockMvc.perform(heatmap().header("Accept", "application/octet-stream"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("X-Heatmap-From", from.toString()))
+				.andExpect(header().string("X-Heatmap-To", from.plusDays(30).toString()))
+				.andReturn().getResponse().getContentAsByteArray();
+		JsonNode json = objectMapper.readTree(mockMvc.perform(heatmap())
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+
+		int daysLength = (31 + 7) / 8;
+		assertThat(encoded).hasSize(2 * (Long.BYTES + daysLength));
+		assertThat(json.get("from").asText()).isEqualTo(from.toString());
+		assertThat(json.get("habits")).hasSize(2);
+		ByteBuffer buffer = ByteBuffer.wrap(encoded);
+		for (int i = 0; i < 2; i++) {
+			long id = buffer.getLong();
+			byte[] days = new byte[daysLength];
+			buffer.get(days);
+			assertThat(id).isEqualTo(i == 0 ? habitId : idleHabitId); // in habit id order
+			assertThat(setDays(days)).isEqualTo(i == 0 ? DONE_DAYS : List.of()); // undone and out of range days are clear
+
+			JsonNode habit = json.get("habits").get(i);
+			assertThat(habit.get("habitId").asLong()).isEqualTo(id);
+			assertThat(Base64.getDecoder().decode(habit.get("days").asText())).isEqualTo(days);
+		}
+	}
+
+	@Test
+	void jsonIsReturnedWithoutAPreference() throws Exception {
+		mockMvc.perform(heatmap())
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+		mockMvc.perform(heatmap().header("Accept", "*/*"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+
+	@Test
+	void bitsetsAreReturnedWhenPreferred() throws Exception {
+		mockMvc.perform(heatmap().header("Accept", "application/octet-stream"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+				.andExpect(header().exists("X-Heatmap-From"));
+		mockMvc.perform(heatmap().header("Accept", "application/json;q=0.5, application/octet-stream"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM));
+	}
+
+	@Test
+	void lowerQualityBitsetsLoseToJson() throws Exception {
+		mockMvc.perform(heatmap().header("Accept", "application/octet-stream;q=0.1, application/json"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+	}
+}
@@ -0,0 +1,125 @@
+package com.example;
+
+import com.example.model.projection.NamedEntity;
+import com.example.repository.HabitRepository;
+import com.example.repository.HabitSummaryRepository;
+import com.example.repository.PracticeRepository;
+import com.example.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the practice import: habits and categories are created by name, duplicates and bad lines are counted
+ * without stopping the import. Two rows are written per transaction here, so several batches run.
+ */
+@TestPropertySource(properties = "import.batch-size=2")
+class ImportTests extends IntegrationTest {
+	private static final String EMAIL = "importer@example.com";
+
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private HabitRepository habitRepository;
+	@Autowired
+	private HabitSummaryRepository habitSummaryRepository;
+	@Autowired
+	private PracticeRepository practiceRepository;
+
+	private String jwt;
+	private Long userId;
+
+	@BeforeAll
+	void setUp() throws Exception {
+		jwt = register(EMAIL).get("jwt").asText();
+		userId = userRepository.findUserByEmailAddress(EMAIL).getId();
+	}
+
+	private JsonNode importPractices(String contentType, String content) throws Exception {
+		String body = mockMvc.perform(post("/api/practices/import/")
+						.header("Authorization", bearer(jwt))
+						.contentType(contentType)
+						.content(content))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private Map<String, Long> habitIds() {
+		Map<String, Long> habitIds = new HashMap<>();
+		for (NamedEntity habit : habitRepository.findNamesByUserId(userId)) {
+			habitIds.put(habit.getName(), habit.getId());
+		}
+		return habitIds;
+	}
+
+	@Test
+	void csvImportCreatesHabitsAndSkipsDuplicatesAndBadLines() throws Exception {
+		LocalDate today = LocalDate.now();
+		String csv = "category,habit,date,done\n" +
+				"Fitness,\"Push-ups, daily\"," + today.minusDays(3) + ",true\n" +
+				"Fitness,\"Push-ups, daily\"," + today.minusDays(2) + ",true\n" +
+				"Fitness,\"Push-ups, daily\"," + today.minusDays(2) + ",false\n" + // same habit and day
+				"Reading,Read,not-a-date,true\n" +
+				"Reading,Read," + today.plusDays(1) + ",true\n" +
+				"Reading,Read," + today.minusDays(1) + ",no\n" +
+				"\n" +
+				",Stretch," + today.minusDays(1) + "\n";
+
+		JsonNode result = importPractices("text/csv", csv);
+		assertThat(result.get("rows").asLong()).isEqualTo(7);
+		assertThat(result.get("imported").asLong()).isEqualTo(4);
+		assertThat(result.get("duplicates").asLong()).isEqualTo(1);
+		assertThat(result.get("failed").asLong()).isEqualTo(2);
+		assertThat(result.get("categoriesCreated").asInt()).isEqualTo(3); // Fitness, Reading and the default one
+		assertThat(result.get("habitsCreated").asInt()).isEqualTo(3);
+		assertThat(result.get("errors").get(0).get("line").asLong()).isEqualTo(5);
+		assertThat(result.get("errors").get(1).get("line").asLong()).isEqualTo(6);
+
+		Map<String, Long> habitIds = habitIds();
+		assertThat(habitIds).containsKeys("Push-ups, daily", "Read", "Stretch");
+		assertThat(habitSummaryRepository.findById(habitIds.get("Push-ups, daily")).orElseThrow().getTotalDone()).isEqualTo(2);
+		assertThat(habitSummaryRepository.findById(habitIds.get("Read")).orElseThrow().getTotalDone()).isZero();
+
+		long practices = practiceRepository.countByUserId(userId);
+		JsonNode again = importPractices("text/csv", csv);
+		assertThat(again.get("imported").asLong()).isZero();
+		assertThat(again.get("duplicates").asLong()).isEqualTo(5);
+		assertThat(again.get("habitsCreated").asInt()).isZero();
+		assertThat(practiceRepository.countByUserId(userId)).isEqualTo(practices);
+	}
+
+	@Test
+	void ndjsonImportReportsMalformedLines() throws Exception {
+		LocalDate today = LocalDate.now();
+		String ndjson = "{\"category\":\"Mind\",\"habit\":\"Meditate\",\"date\":\"" + today.minusDays(5) + "\",\"done\":true}\n" +
+				"{\"habit\":\"Meditate\",\"date\":\"" + today.minusDays(4) + "\"}\n" +
+				"{\"habit\":\"Meditate\"\n" +
+				"{\"date\":\"" + today.minusDays(3) + "\"}\n";
+
+		JsonNode result = importPractices("application/x-ndjson", ndjson);
+		assertThat(result.get("imported").asLong()).isEqualTo(2);
+		assertThat(result.get("failed").asLong()).isEqualTo(2);
+		assertThat(result.get("errors").get(1).get("message").asText()).isEqualTo("habit is required");
+		assertThat(habitSummaryRepository.findById(habitIds().get("Meditate")).orElseThrow().getTotalDone()).isEqualTo(2);
+	}
+
+	@Test
+	void csvWithoutHabitOrDateColumnIsRejected() throws Exception {
+		mockMvc.perform(post("/api/practices/import/")
+						.header("Authorization", bearer(jwt))
+						.contentType("text/csv")
+						.content("name,day\nRead,2020-01-01\n"))
+				.andExpect(status().isBadRequest());
+	}
+}
@@ -0,0 +1,88 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Base of the MockMvc tests against the full application. Classes with the same extra properties share one
+ * cached context and database, so each class registers users of its own instead of changing the seeded ones.
+ * Extra properties go in a {@code @TestPropertySource} on the subclass.
+ */
+@SpringBootTest(properties = {
+		"jwt-secret=ZGFpbHlyaXNlLXN0YXRlbWVudC1jb3VudC10ZXN0cy1zZWNyZXQta2V5LTI1Ng==",
+		"jwt-expiration-ms=3600000"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public abstract class IntegrationTest {
+	protected static final String PASSWORD = "test1234";
+
+	@Autowired
+	protected MockMvc mockMvc;
+	@Autowired
+	protected ObjectMapper objectMapper;
+
+	protected static String bearer(String jwt) {
+		return "Bearer " + jwt;
+	}
+
+	/**
+	 * Registers a user with {@link #PASSWORD} and returns the response of its first login.
+	 */
+	protected JsonNode register(String emailAddress) throws Exception {
+		mockMvc.perform(post("/auth/users/register/")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(credentials(emailAddress)))
+				.andExpect(status().isOk());
+		return login(emailAddress);
+	}
+
+	protected ResultActions performLogin(String emailAddress) throws Exception {
+		return mockMvc.perform(post("/auth/users/login/")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(credentials(emailAddress)));
+	}
+
+	/**
+	 * Logs in with {@link #PASSWORD} and returns the JWT and refresh token.
+	 */
+	protected JsonNode login(String emailAddress) throws Exception {
+		String body = performLogin(emailAddress)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	protected JsonNode postJson(String url, String jwt, String content) throws Exception {
+		String body = mockMvc.perform(post(url)
+						.header("Authorization", bearer(jwt))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(content))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	/**
+	 * Creates a category holding one habit through the API and returns the habit's id.
+	 */
+	protected Long createHabit(String jwt, String categoryName, String habitName) throws Exception {
+		JsonNode category = postJson("/api/categories/", jwt, "{\"name\":\"" + categoryName + "\",\"description\":\"\"}");
+		return postJson("/api/categories/" + category.get("id").asLong() + "/habits/", jwt, "{\"name\":\"" + habitName + "\"}")
+				.get("id").asLong();
+	}
+
+	private static String credentials(String emailAddress) {
+		return "{\"emailAddress\":\"" + emailAddress + "\",\"password\":\"" + PASSWORD + "\"}";
+	}
+}
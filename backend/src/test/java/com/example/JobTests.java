@@ -0,0 +1,97 @@
+package com.example;
+
+import com.example.repository.PracticeRepository;
+import com.example.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the export job: it is accepted at once, reports its status, and its download holds all of the user's data.
+ */
+class JobTests extends IntegrationTest {
+	private static final String EMAIL = "export@example.com";
+
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private PracticeRepository practiceRepository;
+
+	private String jwt;
+
+	@BeforeAll
+	void setUp() throws Exception {
+		jwt = register(EMAIL).get("jwt").asText();
+		Long habitId = createHabit(jwt, "Morning Routine", "Shower");
+		for (int day = 1; day <= 3; day++) {
+			postJson("/api/habits/" + habitId + "/practices/", jwt, "{\"done\":true,\"date\":\"" + LocalDate.now().minusDays(day) + "\"}");
+		}
+	}
+
+	private JsonNode awaitJob(long jobId) throws Exception {
+		JsonNode job = null;
+		for (int attempt = 0; attempt < 100; attempt++) {
+			String body = mockMvc.perform(get("/api/jobs/" + jobId + "/").header("Authorization", bearer(jwt)))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getContentAsString();
+			job = objectMapper.readTree(body);
+			if (job.get("status").asText().equals("SUCCEEDED") || job.get("status").asText().equals("FAILED")) {
+				return job;
+			}
+			Thread.sleep(100);
+		}
+		return job;
+	}
+
+	@Test
+	void exportJobProducesAGzippedDownloadOfAllData() throws Exception {
+		MvcResult accepted = mockMvc.perform(post("/api/jobs/export/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isAccepted())
+				.andExpect(header().exists("Location"))
+				.andReturn();
+		long jobId = objectMapper.readTree(accepted.getResponse().getContentAsString()).get("id").asLong();
+
+		JsonNode job = awaitJob(jobId);
+		assertThat(job.get("status").asText()).isEqualTo("SUCCEEDED");
+
+		byte[] export = mockMvc.perform(get("/api/jobs/" + jobId + "/download/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Content-Type", "application/gzip"))
+				.andReturn().getResponse().getContentAsByteArray();
+		Map<String, Integer> rowsByType = new HashMap<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(new ByteArrayInputStream(export)), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				rowsByType.merge(objectMapper.readTree(line).get("type").asText(), 1, Integer::sum);
+			}
+		}
+		Long userId = userRepository.findUserByEmailAddress(EMAIL).getId();
+		assertThat(rowsByType.get("CATEGORY")).isPositive();
+		assertThat(rowsByType.get("HABIT")).isPositive();
+		assertThat(rowsByType.get("PRACTICE").longValue()).isEqualTo(practiceRepository.countByUserId(userId)).isEqualTo(3);
+	}
+
+	@Test
+	void unknownJobIsNotFound() throws Exception {
+		mockMvc.perform(get("/api/jobs/999999/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isNotFound());
+	}
+}
@@ -0,0 +1,147 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the partial updates of habits and practices: only the sent properties change, and stale versions,
+ * unknown keys and values of the wrong type are client errors that leave the entity as it was.
+ */
+class PatchTests extends IntegrationTest {
+	private static final String EMAIL = "patch@example.com";
+
+	private String jwt;
+	private Long categoryId;
+
+	@BeforeAll
+	void setUp() throws Exception {
+		jwt = register(EMAIL).get("jwt").asText();
+		categoryId = postJson("/api/categories/", jwt, "{\"name\":\"Evening\",\"description\":\"\"}").get("id").asLong();
+	}
+
+	private JsonNode createHabit(String name) throws Exception {
+		return postJson("/api/categories/" + categoryId + "/habits/", jwt,
+				"{\"name\":\"" + name + "\",\"trigger\":\"After dinner\",\"outcome\":\"Calm\",\"routine\":\"10 pages\"}");
+	}
+
+	private JsonNode createPractice(Long habitId, LocalDate date) throws Exception {
+		return postJson("/api/habits/" + habitId + "/practices/", jwt, "{\"done\":false,\"date\":\"" + date + "\"}");
+	}
+
+	private ResultActions patchHabit(Long habitId, String content) throws Exception {
+		return mockMvc.perform(patch("/api/habits/" + habitId + "/")
+				.header("Authorization", bearer(jwt))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(content));
+	}
+
+	private ResultActions patchPractice(Long practiceId, String content) throws Exception {
+		return mockMvc.perform(patch("/api/practices/" + practiceId)
+				.header("Authorization", bearer(jwt))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(content));
+	}
+
+	private JsonNode getHabit(Long habitId) throws Exception {
+		String body = mockMvc.perform(get("/api/categories/" + categoryId + "/habits/" + habitId + "/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	private JsonNode getPractice(Long practiceId) throws Exception {
+		String body = mockMvc.perform(get("/api/practices/" + practiceId + "/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	@Test
+	void patchChangesOnlyTheGivenProperty() throws Exception {
+		Long habitId = createHabit("Read").get("id").asLong();
+		String body = patchHabit(habitId, "{\"routine\":\"20 pages\"}")
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		JsonNode habit = objectMapper.readTree(body);
+		assertThat(habit.get("routine").asText()).isEqualTo("20 pages");
+		assertThat(habit.get("name").asText()).isEqualTo("Read");
+		assertThat(habit.get("trigger").asText()).isEqualTo("After dinner");
+		assertThat(habit.get("outcome").asText()).isEqualTo("Calm");
+		assertThat(habit.get("version").asLong()).isEqualTo(1);
+
+		Long practiceId = createPractice(habitId, LocalDate.now().minusDays(1)).get("id").asLong();
+		JsonNode practice = objectMapper.readTree(patchPractice(practiceId, "{\"done\":true}")
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString());
+		assertThat(practice.get("done").asBoolean()).isTrue();
+		assertThat(practice.get("date").asText()).isEqualTo(LocalDate.now().minusDays(1).toString());
+	}
+
+	@Test
+	void putOfTheRepresentationAsReadIsAccepted() throws Exception {
+		JsonNode habit = getHabit(createHabit("Walk").get("id").asLong());
+		((ObjectNode) habit).put("outcome", "Fresh air");
+		String body = mockMvc.perform(put("/api/habits/" + habit.get("id").asLong() + "/")
+						.header("Authorization", bearer(jwt))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(habit.toString()))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(objectMapper.readTree(body).get("outcome").asText()).isEqualTo("Fresh air");
+	}
+
+	@Test
+	void staleVersionIsAConflict() throws Exception {
+		Long habitId = createHabit("Stretch").get("id").asLong();
+		patchHabit(habitId, "{\"version\":0,\"routine\":\"5 minutes\"}").andExpect(status().isOk());
+		patchHabit(habitId, "{\"version\":0,\"routine\":\"10 minutes\"}").andExpect(status().isConflict());
+		assertThat(getHabit(habitId).get("routine").asText()).isEqualTo("5 minutes");
+
+		Long practiceId = createPractice(habitId, LocalDate.now().minusDays(2)).get("id").asLong();
+		patchPractice(practiceId, "{\"version\":3,\"done\":true}").andExpect(status().isConflict());
+		assertThat(getPractice(practiceId).get("done").asBoolean()).isFalse();
+	}
+
+	@Test
+	void unknownKeysAreRejected() throws Exception {
+		Long habitId = createHabit("Journal").get("id").asLong();
+		patchHabit(habitId, "{\"routine\":\"1 page\",\"colour\":\"blue\"}").andExpect(status().isBadRequest());
+		patchHabit(habitId, "{\"category\":{\"id\":1}}").andExpect(status().isBadRequest());
+		assertThat(getHabit(habitId).get("routine").asText()).isEqualTo("10 pages");
+
+		Long practiceId = createPractice(habitId, LocalDate.now().minusDays(1)).get("id").asLong();
+		patchPractice(practiceId, "{\"habitId\":1}").andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void valuesOfTheWrongTypeAreRejected() throws Exception {
+		Long habitId = createHabit("Floss").get("id").asLong();
+		patchHabit(habitId, "{\"name\":5}").andExpect(status().isBadRequest());
+		patchHabit(habitId, "{\"name\":null}").andExpect(status().isBadRequest());
+		patchHabit(habitId, "{\"version\":\"zero\"}").andExpect(status().isBadRequest());
+		patchHabit(habitId, "{\"name\":").andExpect(status().isBadRequest());
+
+		Long practiceId = createPractice(habitId, LocalDate.now().minusDays(1)).get("id").asLong();
+		patchPractice(practiceId, "{\"date\":\"yesterday\"}").andExpect(status().isBadRequest());
+		patchPractice(practiceId, "{\"date\":20240101}").andExpect(status().isBadRequest());
+		patchPractice(practiceId, "{\"done\":1}").andExpect(status().isBadRequest());
+		patchPractice(practiceId, "{\"done\":null}").andExpect(status().isBadRequest());
+		patchPractice(practiceId, "{\"date\":\"" + LocalDate.now().plusDays(1) + "\"}").andExpect(status().isBadRequest());
+		JsonNode practice = getPractice(practiceId);
+		assertThat(practice.get("done").asBoolean()).isFalse();
+		assertThat(practice.get("date").asText()).isEqualTo(LocalDate.now().minusDays(1).toString());
+		assertThat(getHabit(habitId).get("name").asText()).isEqualTo("Floss");
+	}
+}
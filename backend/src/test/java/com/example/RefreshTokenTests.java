@@ -0,0 +1,73 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the refresh-token flow: rotation, reuse detection and logout.
+ */
+class RefreshTokenTests extends IntegrationTest {
+	private static final String EMAIL = "refresh-tokens@example.com";
+
+	@BeforeAll
+	void setUp() throws Exception {
+		register(EMAIL);
+	}
+
+	private JsonNode login() throws Exception {
+		return login(EMAIL);
+	}
+
+	private ResultActions postToken(String url, String refreshToken) throws Exception {
+		return mockMvc.perform(post(url)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"refreshToken\":\"" + refreshToken + "\"}"));
+	}
+
+	private JsonNode refresh(String refreshToken) throws Exception {
+		String body = postToken("/auth/users/refresh/", refreshToken)
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return objectMapper.readTree(body);
+	}
+
+	@Test
+	void refreshReturnsAWorkingJwtAndRotatesTheToken() throws Exception {
+		String refreshToken = login().get("refreshToken").asText();
+		JsonNode refreshed = refresh(refreshToken);
+		assertThat(refreshed.get("refreshToken").asText()).isNotEqualTo(refreshToken);
+		mockMvc.perform(get("/auth/users/profile/").header("Authorization", bearer(refreshed.get("jwt").asText())))
+				.andExpect(status().isOk());
+		refresh(refreshed.get("refreshToken").asText());
+	}
+
+	@Test
+	void reusedTokenRevokesItsFamily() throws Exception {
+		String first = login().get("refreshToken").asText();
+		String second = refresh(first).get("refreshToken").asText();
+		postToken("/auth/users/refresh/", first).andExpect(status().isUnauthorized());
+		postToken("/auth/users/refresh/", second).andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void logoutRevokesOnlyThatSession() throws Exception {
+		String loggedOut = login().get("refreshToken").asText();
+		String other = login().get("refreshToken").asText();
+		postToken("/auth/users/logout/", loggedOut).andExpect(status().isNoContent());
+		postToken("/auth/users/refresh/", loggedOut).andExpect(status().isUnauthorized());
+		refresh(other);
+	}
+
+	@Test
+	void unknownTokenIsRejected() throws Exception {
+		postToken("/auth/users/refresh/", "not-a-token").andExpect(status().isUnauthorized());
+	}
+}
@@ -0,0 +1,266 @@
+package com.example;
+
+import com.example.model.Category;
+import com.example.model.Habit;
+import com.example.model.PracticeTracker;
+import com.example.model.User;
+import com.example.repository.CategoryRepository;
+import com.example.repository.HabitRepository;
+import com.example.repository.PracticeRepository;
+import com.example.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Asserts how many SQL statements each read endpoint issues, so that growing practice history
+ * cannot silently turn into per-row queries. Every list endpoint first reads the user's sync state
+ * by primary key for its ETag.
+ */
+class StatementCountTests extends IntegrationTest {
+	private static final String EMAIL = "statement-count@example.com";
+	private static final String OTHER_EMAIL = "statement-count-other@example.com";
+
+	@Autowired
+	private UserRepository userRepository;
+	@Autowired
+	private CategoryRepository categoryRepository;
+	@Autowired
+	private HabitRepository habitRepository;
+	@Autowired
+	private PracticeRepository practiceRepository;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Statistics statistics;
+	private String jwt;
+	private Habit habit;
+	private Long practiceId;
+	private Long foreignPracticeId;
+
+	@BeforeAll
+	void setUp() throws Exception {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		jwt = register(EMAIL).get("jwt").asText();
+		User user = userRepository.findUserByEmailAddress(EMAIL);
+		habit = habitRepository.findById(createHabit(jwt, "Morning Routine", "Shower")).orElseThrow();
+		List<PracticeTracker> practices = new ArrayList<>();
+		for (int day = 1; day <= 200; day++) {
+			PracticeTracker practice = new PracticeTracker(null, day % 3 != 0, LocalDate.now().minusDays(day), habit);
+			practice.setUser(user);
+			practices.add(practice);
+		}
+		practiceRepository.saveAll(practices);
+		practiceId = practices.get(0).getId();
+		String otherJwt = register(OTHER_EMAIL).get("jwt").asText();
+		User other = userRepository.findUserByEmailAddress(OTHER_EMAIL);
+		PracticeTracker foreignPractice = new PracticeTracker(null, true, LocalDate.now().minusDays(1),
+				habitRepository.findById(createHabit(otherJwt, "Bed Time", "Skin Care")).orElseThrow());
+		foreignPractice.setUser(other);
+		foreignPracticeId = practiceRepository.save(foreignPractice).getId();
+		statementsFor("/api/habits/"); // warms the principal cache
+	}
+
+	/**
+	 * Performs an authenticated GET and returns the number of statements it prepared.
+	 */
+	private long statementsFor(String url) throws Exception {
+		statistics.clear();
+		mockMvc.perform(get(url).header("Authorization", bearer(jwt))).andExpect(status().isOk());
+		return statistics.getPrepareStatementCount();
+	}
+
+	@Test
+	void authenticatedRequestWithCachedPrincipalDoesNotLoadTheUser() throws Exception {
+		statementsFor("/api/practices/");
+		assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).isZero();
+		assertThat(statistics.getCollectionLoadCount()).isZero();
+	}
+
+	@Test
+	void getAllCategoriesFetchJoinsHabitsAndBatchesPractices() throws Exception {
+		assertThat(statementsFor("/api/categories/")).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void getAllHabitsIsOneStatement() throws Exception {
+		assertThat(statementsFor("/api/habits/")).isEqualTo(2);
+	}
+
+	@Test
+	void habitPageDoesNotCarryPractices() throws Exception {
+		statistics.clear();
+		String body = mockMvc.perform(get("/api/habits/?limit=50").header("Authorization", bearer(jwt)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(statistics.getCollectionLoadCount()).isZero();
+		JsonNode page = objectMapper.readTree(body);
+		JsonNode item = page.get("items").get(0);
+		assertThat(item.get("id").asLong()).isEqualTo(habit.getId());
+		assertThat(item.get("categoryId").asLong()).isEqualTo(habit.getCategory().getId());
+		assertThat(item.has("practiceTrackerList")).isFalse();
+	}
+
+	@Test
+	void getAllPracticesIsOneStatement() throws Exception {
+		assertThat(statementsFor("/api/practices/")).isEqualTo(2);
+	}
+
+	@Test
+	void unchangedPollIsNotModifiedWithoutLoadingEntities() throws Exception {
+		String etag = mockMvc.perform(get("/api/practices/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		assertThat(etag).isNotNull();
+		statistics.clear();
+		mockMvc.perform(get("/api/practices/").header("Authorization", bearer(jwt)).header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string("ETag", etag));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityStatistics(PracticeTracker.class.getName()).getLoadCount()).isZero();
+	}
+
+	@Test
+	void writeChangesTheEtag() throws Exception {
+		String etag = mockMvc.perform(get("/api/habits/").header("Authorization", bearer(jwt)))
+				.andReturn().getResponse().getHeader("ETag");
+		Long habitId = habitRepository.findByUserId(userRepository.findUserByEmailAddress(EMAIL).getId()).get(0).getId();
+		mockMvc.perform(post("/api/habits/" + habitId + "/practices/")
+						.header("Authorization", bearer(jwt))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"done\":true,\"date\":\"" + LocalDate.now().minusDays(500) + "\"}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/habits/").header("Authorization", bearer(jwt)).header("If-None-Match", etag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void streamedBodyIsCountedTowardsItsRequest() throws Exception {
+		DistributionSummary summary = meterRegistry.summary("dailyrise.request.statements", "uri", "/api/practices/stream/", "method", "GET");
+		double totalBefore = summary.totalAmount();
+		long countBefore = summary.count();
+		statistics.clear();
+		MvcResult result = mockMvc.perform(get("/api/practices/stream/").header("Authorization", bearer(jwt)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		assertThat(summary.count()).isEqualTo(countBefore); // recorded once the request completes
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+		assertThat(statistics.getPrepareStatementCount()).isPositive();
+		assertThat(summary.count()).isEqualTo(countBefore + 1);
+		assertThat(summary.totalAmount() - totalBefore).isEqualTo(statistics.getPrepareStatementCount()); // including the body's
+	}
+
+	@Test
+	void getProfileLoadsOnlyUserAndProfile() throws Exception {
+		statementsFor("/auth/users/profile/");
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+		assertThat(statistics.getCollectionLoadCount()).isZero();
+	}
+
+	@Test
+	void getHabitOfCategoryIsOneStatement() throws Exception {
+		Long categoryId = habitRepository.findById(habit.getId()).orElseThrow().getCategory().getId();
+		assertThat(statementsFor("/api/categories/" + categoryId + "/habits/" + habit.getId() + "/")).isEqualTo(1);
+		assertThat(statistics.getEntityStatistics(Category.class.getName()).getLoadCount()).isZero();
+	}
+
+	@Test
+	void getPracticeByIdIsOneStatement() throws Exception {
+		assertThat(statementsFor("/api/practices/" + practiceId + "/")).isEqualTo(1);
+	}
+
+	@Test
+	void practiceOfAnotherUserIsNotFound() throws Exception {
+		mockMvc.perform(get("/api/practices/" + foreignPracticeId + "/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(delete("/api/practices/" + foreignPracticeId + "/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isNotFound());
+		assertThat(practiceRepository.existsById(foreignPracticeId)).isTrue();
+	}
+
+	@Test
+	void deleteHabitDoesNotGrowWithItsPractices() throws Exception {
+		User user = userRepository.findUserByEmailAddress(EMAIL);
+		Category category = habitRepository.findById(habit.getId()).orElseThrow().getCategory();
+		Habit doomed = new Habit(null, "Deleted habit", null, null, null, category);
+		doomed.setUser(user);
+		Long doomedId = habitRepository.save(doomed).getId();
+		List<PracticeTracker> practices = new ArrayList<>();
+		for (int day = 1; day <= 500; day++) {
+			PracticeTracker practice = new PracticeTracker(null, true, LocalDate.now().minusDays(day), doomed);
+			practice.setUser(user);
+			practices.add(practice);
+		}
+		practiceRepository.saveAll(practices);
+
+		statistics.clear();
+		String body = mockMvc.perform(delete("/api/categories/" + category.getId() + "/habits/" + doomedId + "/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(objectMapper.readTree(body).get("name").asText()).isEqualTo("Deleted habit");
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(15);
+		assertThat(statistics.getEntityDeleteCount()).isLessThanOrEqualTo(2); // the habit and its summary, the practices go in bulk
+		assertThat(practiceRepository.findDoneDatesByHabitId(doomedId)).isEmpty();
+	}
+
+	@Test
+	void deleteCategoryDoesNotGrowWithItsHabitsAndPractices() throws Exception {
+		User user = userRepository.findUserByEmailAddress(EMAIL);
+		Category category = new Category(null, "Deleted category", null);
+		category.setUser(user);
+		Long categoryId = categoryRepository.save(category).getId();
+		List<Long> habitIds = new ArrayList<>();
+		List<PracticeTracker> practices = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Habit doomed = new Habit(null, "Deleted category habit " + i, null, null, null, category);
+			doomed.setUser(user);
+			habitIds.add(habitRepository.save(doomed).getId());
+			for (int day = 1; day <= 100; day++) {
+				PracticeTracker practice = new PracticeTracker(null, true, LocalDate.now().minusDays(day), doomed);
+				practice.setUser(user);
+				practices.add(practice);
+			}
+		}
+		practiceRepository.saveAll(practices);
+
+		statistics.clear();
+		String body = mockMvc.perform(delete("/api/categories/" + categoryId + "/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+		assertThat(statistics.getEntityDeleteCount()).isLessThanOrEqualTo(1); // the category, everything below it goes in bulk
+		JsonNode deleted = objectMapper.readTree(body);
+		assertThat(deleted.get("id").asLong()).isEqualTo(categoryId);
+		assertThat(deleted.get("habitList")).isEmpty();
+		assertThat(categoryRepository.existsById(categoryId)).isFalse();
+		assertThat(habitRepository.findAllById(habitIds)).isEmpty();
+		for (Long habitId : habitIds) {
+			assertThat(practiceRepository.findDoneDatesByHabitId(habitId)).isEmpty();
+		}
+	}
+}
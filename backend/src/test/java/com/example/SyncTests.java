@@ -0,0 +1,97 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the delta sync: only changes after the given revision are returned, deletions as tombstones.
+ */
+class SyncTests extends IntegrationTest {
+	private static final String EMAIL = "sync@example.com";
+
+	private String jwt;
+	private Long habitId;
+
+	@BeforeAll
+	void setUp() throws Exception {
+		jwt = register(EMAIL).get("jwt").asText();
+		habitId = createHabit(jwt, "Bed Time", "Skin Care");
+	}
+
+	private MvcResult sync(long since) throws Exception {
+		MvcResult result = mockMvc.perform(get("/api/sync?since=" + since).header("Authorization", bearer(jwt)))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andReturn();
+	}
+
+	private List<JsonNode> lines(MvcResult result) throws Exception {
+		List<JsonNode> lines = new ArrayList<>();
+		for (String line : result.getResponse().getContentAsString().split("\n")) {
+			if (!line.isBlank()) {
+				lines.add(objectMapper.readTree(line));
+			}
+		}
+		return lines;
+	}
+
+	private long revision(MvcResult result) {
+		return Long.parseLong(result.getResponse().getHeader("X-Sync-Revision"));
+	}
+
+	@Test
+	void syncReturnsOnlyChangesAfterTheRevision() throws Exception {
+		long since = revision(sync(0));
+		String created = mockMvc.perform(post("/api/habits/" + habitId + "/practices/")
+						.header("Authorization", bearer(jwt))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"done\":true,\"date\":\"" + LocalDate.now().minusDays(3) + "\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		long practiceId = objectMapper.readTree(created).get("id").asLong();
+		mockMvc.perform(delete("/api/practices/" + practiceId + "/").header("Authorization", bearer(jwt)))
+				.andExpect(status().isOk());
+
+		MvcResult result = sync(since);
+		List<JsonNode> lines = lines(result);
+		assertThat(revision(result)).isEqualTo(since + 2);
+		assertThat(lines).hasSize(1); // the practice is gone, only its tombstone is left
+		assertThat(lines.get(0).get("type").asText()).isEqualTo("PRACTICE");
+		assertThat(lines.get(0).get("id").asLong()).isEqualTo(practiceId);
+		assertThat(lines.get(0).get("deleted").asBoolean()).isTrue();
+
+		assertThat(lines(sync(revision(result)))).isEmpty();
+	}
+
+	@Test
+	void changedEntitiesCarryTheirCurrentState() throws Exception {
+		long since = revision(sync(0));
+		mockMvc.perform(post("/api/habits/" + habitId + "/practices/")
+						.header("Authorization", bearer(jwt))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"done\":false,\"date\":\"" + LocalDate.now().minusDays(10) + "\"}"))
+				.andExpect(status().isOk());
+
+		List<JsonNode> lines = lines(sync(since));
+		assertThat(lines).hasSize(1);
+		JsonNode entity = lines.get(0).get("entity");
+		assertThat(entity.get("habitId").asLong()).isEqualTo(habitId);
+		assertThat(entity.get("done").asBoolean()).isFalse();
+		assertThat(entity.get("version").asLong()).isZero();
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.benchmark;
+
+import com.example.BackendApplication;
+import com.example.security.MyUserDetailsService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application with an in-memory H2 database for benchmarks that need the full stack.
+ */
+final class BenchmarkApplication {
+	/**
+	 * A user created by SeedData, owning the "Morning Routine" category.
+	 */
+	static final String SEED_EMAIL = "gabrielleynara@ymail.com";
+
+	private BenchmarkApplication() {
+	}
+
+	/**
+	 * Starts the application on a random port.
+	 *
+	 * @param extraProperties Additional properties in key=value form, overriding the defaults.
+	 */
+	static ConfigurableApplicationContext start(String... extraProperties) {
+		List<String> properties = new ArrayList<>(List.of(
+				"server.port=0",
+				"jwt-secret=" + JwtVerificationBenchmark.SECRET,
+				"jwt-expiration-ms=3600000",
+				"spring.datasource.url=jdbc:h2:mem:benchmark-" + System.nanoTime(),
+				"logging.level.root=WARN"));
+		properties.addAll(List.of(extraProperties));
+		return new SpringApplicationBuilder(BackendApplication.class)
+				.properties(properties.toArray(String[]::new))
+				.run();
+	}
+
+	/**
+	 * Authenticates the calling thread as the given user, as JwtRequestFilter would for a request.
+	 */
+	static void authenticate(ConfigurableApplicationContext context, String emailAddress) {
+		UserDetails userDetails = context.getBean(MyUserDetailsService.class).loadUserByUsername(emailAddress);
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+	}
+}
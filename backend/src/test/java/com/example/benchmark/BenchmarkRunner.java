@@ -0,0 +1,84 @@
+package com.example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Entry point of the benchmark Maven profile.
+ * <p>
+ * {@code BenchmarkRunner <include regex> <result file>} runs the matching benchmarks and writes JMH's JSON results,
+ * one file per commit or tag. {@code BenchmarkRunner compare <base file> <head file>} prints the relative change
+ * of every benchmark present in both files.
+ * </p>
+ * @version 1.0.0
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException, IOException {
+		if (args.length == 3 && args[0].equals("compare")) {
+			compare(Path.of(args[1]), Path.of(args[2]));
+			return;
+		}
+		if (args.length != 2) {
+			System.err.println("usage: BenchmarkRunner <include regex> <result file>");
+			System.err.println("       BenchmarkRunner compare <base result file> <head result file>");
+			System.exit(2);
+		}
+		Path result = Path.of(args[1]);
+		Files.createDirectories(result.toAbsolutePath().getParent());
+		new Runner(new OptionsBuilder()
+				.include(args[0])
+				.exclude(BenchmarkRunner.class.getSimpleName())
+				.resultFormat(ResultFormatType.JSON)
+				.result(result.toString())
+				.build()).run();
+		System.out.println("Results written to " + result.toAbsolutePath());
+	}
+
+	private static void compare(Path base, Path head) throws IOException {
+		Map<String, JsonNode> baseScores = readScores(base.toFile());
+		Map<String, JsonNode> headScores = readScores(head.toFile());
+		System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "base", "head", "change");
+		for (Map.Entry<String, JsonNode> entry : new TreeMap<>(headScores).entrySet()) {
+			JsonNode baseMetric = baseScores.get(entry.getKey());
+			if (baseMetric == null) {
+				continue;
+			}
+			double baseScore = baseMetric.get("score").asDouble();
+			double headScore = entry.getValue().get("score").asDouble();
+			System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%n", entry.getKey(), baseScore, headScore,
+					(headScore - baseScore) * 100 / baseScore, entry.getValue().get("scoreUnit").asText());
+		}
+	}
+
+	/**
+	 * Reads a JMH JSON result file into the primary metric of each benchmark, keyed by name, mode and parameters.
+	 */
+	private static Map<String, JsonNode> readScores(File file) throws IOException {
+		Map<String, JsonNode> scores = new LinkedHashMap<>();
+		for (JsonNode run : new ObjectMapper().readTree(file)) {
+			StringBuilder key = new StringBuilder(run.get("benchmark").asText()).append(' ').append(run.get("mode").asText());
+			JsonNode params = run.get("params");
+			if (params != null) {
+				params.fields().forEachRemaining(param -> key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+			}
+			scores.put(key.toString(), run.get("primaryMetric"));
+		}
+		return scores;
+	}
+}
@@ -0,0 +1,139 @@
+package com.example.benchmark;
+
+import com.example.events.ChangeEventHub;
+import com.example.repository.HabitRepository;
+import com.example.security.JWTUtils;
+import com.example.security.MyUserDetails;
+import com.example.security.MyUserDetailsService;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Opens many idle Server-Sent Event streams and measures what they cost and how fast one check-in reaches all of them.
+ * <p>
+ * All streams belong to the seeded user, so a single check-in fans out to every one. Reported are the heap and
+ * platform thread count with the streams idle, and the p50/p99/max delay from the check-in to the change event.
+ * Settings are read from system properties: events.clients (default 10000), events.virtual-threads (default true).
+ * The client side needs a file descriptor limit above the number of clients.
+ * </p>
+ * @version 1.0.0
+ */
+public final class EventStreamBenchmark {
+
+	private EventStreamBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int clients = Integer.getInteger("events.clients", 10_000);
+		boolean virtualThreads = Boolean.parseBoolean(System.getProperty("events.virtual-threads", "true"));
+		ConfigurableApplicationContext context = BenchmarkApplication.start(
+				"spring.threads.virtual.enabled=" + virtualThreads,
+				"server.tomcat.max-connections=" + (clients + 1000),
+				"server.tomcat.accept-count=" + clients,
+				"sse.max-connections=" + clients,
+				"sse.max-connections-per-user=" + clients);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			MyUserDetails userDetails = (MyUserDetails) context.getBean(MyUserDetailsService.class)
+					.loadUserByUsername(BenchmarkApplication.SEED_EMAIL);
+			String jwt = context.getBean(JWTUtils.class).generateJwtToken(userDetails);
+			Long habitId = context.getBean(HabitRepository.class).findIdsByUserId(userDetails.getUser().getId()).get(0);
+
+			CountDownLatch connected = new CountDownLatch(clients);
+			CountDownLatch received = new CountDownLatch(clients);
+			AtomicLongArray receivedAt = new AtomicLongArray(clients);
+			List<Socket> sockets = new ArrayList<>();
+			for (int i = 0; i < clients; i++) {
+				Socket socket = new Socket("localhost", port);
+				sockets.add(socket);
+				int client = i;
+				executor.submit(() -> listen(socket, jwt, connected, received, receivedAt, client));
+			}
+			if (!connected.await(120, TimeUnit.SECONDS)) {
+				System.out.printf("only %d of %d streams opened%n", clients - connected.getCount(), clients);
+			}
+			System.gc();
+			long heapBytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+			System.out.printf("streams=%d open=%d heap=%.0f MB platform threads=%d%n", clients,
+					context.getBean(ChangeEventHub.class).getConnectionCount(), heapBytes / 1e6,
+					ManagementFactory.getThreadMXBean().getThreadCount());
+
+			long sentAt = System.nanoTime();
+			HttpResponse<String> response = HttpClient.newHttpClient().send(
+					HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/habits/" + habitId + "/practices/"))
+							.header("Authorization", "Bearer " + jwt)
+							.header("Content-Type", "application/json")
+							.POST(HttpRequest.BodyPublishers.ofString("{\"done\":true,\"date\":\"" + LocalDate.now().minusDays(1000) + "\"}"))
+							.build(),
+					HttpResponse.BodyHandlers.ofString());
+			received.await(60, TimeUnit.SECONDS);
+			long[] delays = new long[clients];
+			for (int i = 0; i < clients; i++) {
+				delays[i] = receivedAt.get(i) - sentAt;
+			}
+			delays = Arrays.stream(delays).filter(delay -> delay > 0).sorted().toArray();
+			System.out.printf("check-in status=%d delivered=%d p50=%.1fms p99=%.1fms max=%.1fms%n", response.statusCode(),
+					delays.length, percentile(delays, 0.50), percentile(delays, 0.99), percentile(delays, 1.0));
+			for (Socket socket : sockets) {
+				socket.close();
+			}
+			executor.shutdownNow();
+		} finally {
+			context.close();
+		}
+	}
+
+	/**
+	 * Opens a stream, counts down once its first event arrived and records when the first change event arrives.
+	 */
+	private static void listen(Socket socket, String jwt, CountDownLatch connected, CountDownLatch received,
+							   AtomicLongArray receivedAt, int client) {
+		try {
+			socket.getOutputStream().write(("GET /api/events/ HTTP/1.1\r\n" +
+					"Host: localhost\r\n" +
+					"Authorization: Bearer " + jwt + "\r\n" +
+					"Accept: text/event-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+			BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.equals("event:revision")) {
+					connected.countDown();
+				} else if (line.equals("event:change")) {
+					receivedAt.set(client, System.nanoTime());
+					received.countDown();
+					return;
+				}
+			}
+		} catch (IOException e) {
+			// closed at the end of the run
+		}
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(quantile * sorted.length) - 1;
+		return sorted[Math.max(index, 0)] / 1e6;
+	}
+}
@@ -0,0 +1,108 @@
+package com.example.benchmark;
+
+import com.example.model.Habit;
+import com.example.repository.CategoryRepository;
+import com.example.repository.HabitRepository;
+import com.example.repository.PracticeRepository;
+import com.example.security.MyUserDetails;
+import com.example.service.CategoryService;
+import com.example.service.HabitSummaryService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long deleting a habit with a long practice history takes: the bulk delete of
+ * CategoryService.deleteHabit versus removing every practice entity, as orphanRemoval did.
+ * Every invocation deletes a fresh habit holding PRACTICES consecutive days.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class HabitDeleteBenchmark {
+	static final int PRACTICES = 10_000;
+	private static final int INSERT_CHUNK = 1000;
+
+	private ConfigurableApplicationContext context;
+	private CategoryService categoryService;
+	private HabitRepository habitRepository;
+	private PracticeRepository practiceRepository;
+	private HabitSummaryService habitSummaryService;
+	private TransactionTemplate transactionTemplate;
+	private JdbcTemplate jdbcTemplate;
+	private Long userId;
+	private Long categoryId;
+	private Long habitId;
+	private int habitCount;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		context = BenchmarkApplication.start();
+		BenchmarkApplication.authenticate(context, BenchmarkApplication.SEED_EMAIL);
+		categoryService = context.getBean(CategoryService.class);
+		habitRepository = context.getBean(HabitRepository.class);
+		practiceRepository = context.getBean(PracticeRepository.class);
+		habitSummaryService = context.getBean(HabitSummaryService.class);
+		transactionTemplate = context.getBean(TransactionTemplate.class);
+		jdbcTemplate = context.getBean(JdbcTemplate.class);
+		userId = ((MyUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getUser().getId();
+		categoryId = context.getBean(CategoryRepository.class).findByNameAndUserId("Morning Routine", userId).getId();
+	}
+
+	@Setup(Level.Invocation)
+	public void createHabit() {
+		Habit habit = new Habit(null, "deleted habit " + habitCount++, "trigger", "outcome", "routine", null);
+		habitId = categoryService.createCategoryHabit(categoryId, habit).getId();
+		LocalDate today = LocalDate.now();
+		List<Object[]> chunk = new ArrayList<>(INSERT_CHUNK);
+		for (int i = 0; i < PRACTICES; i++) {
+			chunk.add(new Object[] {i % 3 != 0, Date.valueOf(today.minusDays(i)), habitId, userId});
+			if (chunk.size() == INSERT_CHUNK || i == PRACTICES - 1) {
+				jdbcTemplate.batchUpdate("insert into practices (id, done, date, version, habit_id, user_id)" +
+						" values (next value for practices_seq, ?, ?, 0, ?, ?)", chunk);
+				chunk.clear();
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@Benchmark
+	public void bulkDelete() {
+		categoryService.deleteHabit(categoryId, habitId);
+	}
+
+	/**
+	 * The former path: every practice is loaded and deleted with its own statement.
+	 */
+	@Benchmark
+	public void entityByEntityDelete() {
+		transactionTemplate.executeWithoutResult(status -> {
+			Habit habit = habitRepository.findById(habitId).orElseThrow();
+			habitSummaryService.deleteSummary(habitId);
+			practiceRepository.deleteAll(habit.getPracticeTrackerList());
+			habitRepository.delete(habit);
+		});
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(HabitDeleteBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.benchmark;
+
+import com.example.security.JWTUtils;
+import com.example.security.MyUserDetails;
+import com.example.security.MyUserDetailsService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Imports a generated CSV history through the HTTP endpoint and reports the server's rate and the end-to-end time.
+ * <p>
+ * The file has import.habits habits across ten categories, each with a practice on every day going back from
+ * yesterday, import.rows rows in total. It is sent twice: the first run creates the habits and stores every row,
+ * the second finds every row a duplicate. Settings are read from system properties: import.rows (default 1000000),
+ * import.habits (default 100), import.batch-size (default 5000).
+ * </p>
+ * @version 1.0.0
+ */
+public final class ImportBenchmark {
+
+	private ImportBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int rows = Integer.getInteger("import.rows", 1_000_000);
+		int habits = Integer.getInteger("import.habits", 100);
+		int batchSize = Integer.getInteger("import.batch-size", 5000);
+		Path file = Files.createTempFile("dailyrise-import", ".csv");
+		LocalDate yesterday = LocalDate.now().minusDays(1);
+		try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write("category,habit,date,done\n");
+			for (int row = 0; row < rows; row++) {
+				int habit = row % habits;
+				writer.write("Category " + habit % 10 + ",Imported habit " + habit + "," + yesterday.minusDays(row / habits)
+						+ "," + (row % 7 != 0) + "\n");
+			}
+		}
+		System.out.printf("generated %d rows, %.1f MB%n", rows, Files.size(file) / 1e6);
+
+		ConfigurableApplicationContext context = BenchmarkApplication.start("import.batch-size=" + batchSize);
+		try {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			MyUserDetails userDetails = (MyUserDetails) context.getBean(MyUserDetailsService.class)
+					.loadUserByUsername(BenchmarkApplication.SEED_EMAIL);
+			String jwt = context.getBean(JWTUtils.class).generateJwtToken(userDetails);
+			ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+			HttpClient client = HttpClient.newHttpClient();
+			for (String run : new String[]{"first", "repeated"}) {
+				long start = System.nanoTime();
+				HttpResponse<String> response = client.send(
+						HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/practices/import/"))
+								.header("Authorization", "Bearer " + jwt)
+								.header("Content-Type", "text/csv")
+								.POST(HttpRequest.BodyPublishers.ofFile(file))
+								.build(),
+						HttpResponse.BodyHandlers.ofString());
+				double seconds = (System.nanoTime() - start) / 1e9;
+				JsonNode result = objectMapper.readTree(response.body());
+				System.out.printf("%s import: status=%d imported=%d duplicates=%d failed=%d server=%.0f rows/s end-to-end=%.1f s%n",
+						run, response.statusCode(), result.path("imported").asLong(), result.path("duplicates").asLong(),
+						result.path("failed").asLong(), result.path("rowsPerSecond").asDouble(), seconds);
+			}
+		} finally {
+			context.close();
+			Files.deleteIfExists(file);
+		}
+	}
+}
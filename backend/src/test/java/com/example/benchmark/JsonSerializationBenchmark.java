@@ -0,0 +1,90 @@
+package com.example.benchmark;
+
+import com.example.model.Habit;
+import com.example.model.PracticeTracker;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson encoding and decoding of the payloads returned by the practice and habit list endpoints,
+ * with the mapper configured as Spring Boot configures it (java.time module, ISO dates).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+	@Param({"100", "10000"})
+	private int practices;
+
+	private ObjectWriter writer;
+	private ObjectReader practiceListReader;
+	private List<PracticeTracker> practiceList;
+	private List<Habit> habitList;
+	private byte[] practiceListJson;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		ObjectMapper objectMapper = JsonMapper.builder()
+				.findAndAddModules()
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+		writer = objectMapper.writer();
+		practiceListReader = objectMapper.readerFor(new TypeReference<List<PracticeTracker>>() { });
+
+		LocalDate today = LocalDate.of(2024, 6, 30);
+		practiceList = new ArrayList<>(practices);
+		habitList = new ArrayList<>();
+		Habit habit = null;
+		for (int i = 0; i < practices; i++) {
+			if (i % 365 == 0) {
+				habit = new Habit((long) habitList.size() + 1, "Habit " + habitList.size(), "trigger", "outcome", "routine", null);
+				habit.setPracticeTrackerList(new ArrayList<>());
+				habitList.add(habit);
+			}
+			PracticeTracker practice = new PracticeTracker((long) i + 1, i % 3 != 0, today.minusDays(i % 365), habit);
+			practiceList.add(practice);
+			habit.getPracticeTrackerList().add(practice);
+		}
+		practiceListJson = writer.writeValueAsBytes(practiceList);
+	}
+
+	@Benchmark
+	public byte[] encodePractices() throws JsonProcessingException {
+		return writer.writeValueAsBytes(practiceList);
+	}
+
+	@Benchmark
+	public List<PracticeTracker> decodePractices() throws IOException {
+		return practiceListReader.readValue(practiceListJson);
+	}
+
+	/**
+	 * GET /api/habits/ returns every habit with its practices.
+	 */
+	@Benchmark
+	public byte[] encodeHabitsWithPractices() throws JsonProcessingException {
+		return writer.writeValueAsBytes(habitList);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(JsonSerializationBenchmark.class.getSimpleName()).build()).run();
+	}
+}
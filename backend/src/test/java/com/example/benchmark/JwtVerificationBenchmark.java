@@ -0,0 +1,99 @@
+package com.example.benchmark;
+
+import com.example.model.User;
+import com.example.security.JWTUtils;
+import com.example.security.MyUserDetails;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-request cost of the old double-parse JWT path with the single-pass verification in JWTUtils,
+ * and measures token generation at login.
+ *
+ * @version 1.1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+    static final String SECRET = "ZGFpbHlyaXNlLWJlbmNobWFyay1zZWNyZXQta2V5LTI1Ni1iaXRzLWxvbmc=";
+
+    private JWTUtils jwtUtils;
+    private JwtParser sharedParser;
+    private MyUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = newJwtUtils();
+        userDetails = new MyUserDetails(new User(1L, "bench@example.com", "hash"));
+        token = jwtUtils.generateJwtToken(userDetails);
+        sharedParser = Jwts.parserBuilder()
+                .setSigningKey(new SecretKeySpec(Decoders.BASE64.decode(SECRET), SignatureAlgorithm.HS256.getJcaName()))
+                .build();
+    }
+
+    /**
+     * Builds a JWTUtils outside of a Spring context.
+     */
+    static JWTUtils newJwtUtils() {
+        JWTUtils utils = new JWTUtils();
+        ReflectionTestUtils.setField(utils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(utils, "jwtExpMS", 3_600_000);
+        ReflectionTestUtils.setField(utils, "claimsCacheMaxSize", 10_000);
+        ReflectionTestUtils.setField(utils, "claimsCacheTtlMS", 300_000L);
+        utils.init();
+        return utils;
+    }
+
+    /**
+     * The path JwtRequestFilter used to take: two freshly built parsers, two signature checks.
+     */
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public String doubleParse() {
+        Jwts.parser().setSigningKey(SECRET).parseClaimsJws(token);
+        return Jwts.parserBuilder().setSigningKey(SECRET).build().parseClaimsJws(token).getBody().getSubject();
+    }
+
+    /**
+     * One signature check with the prebuilt parser, without the claims cache.
+     */
+    @Benchmark
+    public String singlePassUncached() {
+        return sharedParser.parseClaimsJws(token).getBody().getSubject();
+    }
+
+    /**
+     * The current path: single-pass verification answered from the claims cache.
+     */
+    @Benchmark
+    public String singlePassCached() {
+        return jwtUtils.verifyJwtToken(token).orElseThrow().getSubject();
+    }
+
+    /**
+     * Signing a new token, as done on every login.
+     */
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(userDetails);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerificationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.benchmark;
+
+import com.example.seed.SyntheticDataGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays a mix of logins, check-ins and list calls against the embedded server and reports
+ * throughput and p50/p99/p999 latency per endpoint.
+ * <p>
+ * The application is started with synthetic data (see {@link SyntheticDataGenerator}); every virtual user,
+ * one virtual thread each, logs in as one of the synthetic users and then loops until the duration is over.
+ * Settings are read from system properties: load.virtual-users, load.duration-seconds, load.synthetic-users, load.days.
+ * </p>
+ * @version 1.0.0
+ */
+public final class LoadTestDriver {
+	private static final String PASSWORD = "load-test";
+
+	private final HttpClient client;
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final String baseUrl;
+	private final int syntheticUsers;
+	private final int days;
+	private final AtomicInteger[] checkInOffsets;
+	private final Map<String, Latencies> latencies = new ConcurrentHashMap<>();
+
+	private LoadTestDriver(HttpClient client, String baseUrl, int syntheticUsers, int days) {
+		this.client = client;
+		this.baseUrl = baseUrl;
+		this.syntheticUsers = syntheticUsers;
+		this.days = days;
+		this.checkInOffsets = new AtomicInteger[syntheticUsers];
+		for (int i = 0; i < syntheticUsers; i++) {
+			checkInOffsets[i] = new AtomicInteger();
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int virtualUsers = Integer.getInteger("load.virtual-users", 200);
+		int durationSeconds = Integer.getInteger("load.duration-seconds", 60);
+		int syntheticUsers = Integer.getInteger("load.synthetic-users", 100);
+		int days = Integer.getInteger("load.days", 365);
+
+		ConfigurableApplicationContext context = BenchmarkApplication.start(
+				"seed.synthetic.users=" + syntheticUsers,
+				"seed.synthetic.days=" + days,
+				"seed.synthetic.password=" + PASSWORD);
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			HttpClient client = HttpClient.newBuilder().executor(executor).build();
+			LoadTestDriver driver = new LoadTestDriver(client, "http://localhost:" + port, syntheticUsers, days);
+
+			long start = System.nanoTime();
+			long deadline = start + durationSeconds * 1_000_000_000L;
+			List<Runnable> virtualUserTasks = new ArrayList<>();
+			for (int i = 0; i < virtualUsers; i++) {
+				int virtualUser = i;
+				virtualUserTasks.add(() -> driver.runVirtualUser(virtualUser, deadline));
+			}
+			virtualUserTasks.forEach(executor::submit);
+			executor.shutdown();
+			executor.awaitTermination(durationSeconds + 60L, TimeUnit.SECONDS);
+			driver.report((System.nanoTime() - start) / 1e9);
+		} finally {
+			context.close();
+		}
+	}
+
+	private void runVirtualUser(int virtualUser, long deadline) {
+		SplittableRandom random = new SplittableRandom(virtualUser);
+		int user = virtualUser % syntheticUsers;
+		LocalDate today = LocalDate.now();
+		try {
+			String jwt = login(user);
+			List<Long> habitIds = new ArrayList<>();
+			for (JsonNode habit : get("habits page", "/api/habits/?limit=50", jwt).get("items")) {
+				habitIds.add(habit.get("id").asLong());
+			}
+			while (System.nanoTime() < deadline) {
+				double action = random.nextDouble();
+				if (action < 0.05) {
+					jwt = login(user);
+				} else if (action < 0.35) {
+					long habitId = habitIds.get(random.nextInt(habitIds.size()));
+					LocalDate date = today.minusDays(days + 1L + checkInOffsets[user].getAndIncrement()); //before the synthetic history
+					send("check-in", HttpRequest.newBuilder(URI.create(baseUrl + "/api/habits/" + habitId + "/practices/"))
+							.header("Authorization", "Bearer " + jwt)
+							.header("Content-Type", "application/json")
+							.POST(HttpRequest.BodyPublishers.ofString("{\"done\":true,\"date\":\"" + date + "\"}")));
+				} else if (action < 0.65) {
+					get("habits page", "/api/habits/?limit=50", jwt);
+				} else if (action < 0.95) {
+					get("practices page", "/api/practices/?limit=50", jwt);
+				} else {
+					get("heatmap", "/api/habits/heatmap/?from=" + today.minusDays(364) + "&to=" + today, jwt);
+				}
+			}
+		} catch (IOException | RuntimeException e) { // e.g. a failed login
+			latencies.computeIfAbsent("aborted virtual users", name -> new Latencies()).recordError();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private String login(int user) throws IOException, InterruptedException {
+		String body = "{\"emailAddress\":\"" + SyntheticDataGenerator.emailAddress(user) + "\",\"password\":\"" + PASSWORD + "\"}";
+		String response = send("login", HttpRequest.newBuilder(URI.create(baseUrl + "/auth/users/login/"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(body)));
+		return objectMapper.readTree(response).get("jwt").asText();
+	}
+
+	private JsonNode get(String endpoint, String path, String jwt) throws IOException, InterruptedException {
+		return objectMapper.readTree(send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.header("Authorization", "Bearer " + jwt)
+				.GET()));
+	}
+
+	/**
+	 * Sends the request and records its latency under the endpoint name.
+	 *
+	 * @return The response body.
+	 */
+	private String send(String endpoint, HttpRequest.Builder request) throws IOException, InterruptedException {
+		Latencies endpointLatencies = latencies.computeIfAbsent(endpoint, name -> new Latencies());
+		long start = System.nanoTime();
+		HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() / 100 == 2) {
+			endpointLatencies.record(System.nanoTime() - start);
+		} else {
+			endpointLatencies.recordError();
+		}
+		return response.body();
+	}
+
+	private void report(double seconds) {
+		System.out.printf("%-24s %10s %8s %10s %10s %10s %10s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms");
+		new TreeMap<>(latencies).forEach((endpoint, endpointLatencies) -> {
+			long[] sorted = endpointLatencies.sorted();
+			System.out.printf("%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f%n", endpoint, sorted.length, endpointLatencies.errors(),
+					sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999));
+		});
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(quantile * sorted.length) - 1;
+		return sorted[Math.max(index, 0)] / 1e6;
+	}
+
+	/**
+	 * Latencies of the successful requests of one endpoint, in nanoseconds, and the number of failed ones.
+	 */
+	private static final class Latencies {
+		private long[] samples = new long[1024];
+		private int size;
+		private int errors;
+
+		synchronized void record(long nanos) {
+			if (size == samples.length) {
+				samples = Arrays.copyOf(samples, size * 2);
+			}
+			samples[size++] = nanos;
+		}
+
+		synchronized void recordError() {
+			errors++;
+		}
+
+		synchronized int errors() {
+			return errors;
+		}
+
+		synchronized long[] sorted() {
+			long[] copy = Arrays.copyOf(samples, size);
+			Arrays.sort(copy);
+			return copy;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.example.benchmark;
+
+import com.example.model.Habit;
+import com.example.model.PracticeTracker;
+import com.example.service.CategoryService;
+import com.example.service.PracticeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflection loop updateHabit and updatePractice used to run with the precomputed patch appliers.
+ * Each invocation alternates between two patches so that every call really changes the target.
+ *
+ * @version 1.0.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PatchApplierBenchmark {
+	private Habit habit;
+	private PracticeTracker practice;
+	private Habit[] habitUpdates;
+	private PracticeTracker[] practiceUpdates;
+	private Map<String, Object>[] habitPatches;
+	private Map<String, Object>[] practicePatches;
+	private int invocation;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		habit = new Habit(1L, "Read", "After dinner", "Calm", "10 pages", null);
+		practice = new PracticeTracker(1L, false, LocalDate.of(2023, 9, 1), habit);
+		habitUpdates = new Habit[] {
+				new Habit(null, "Read", null, null, "20 pages", null),
+				new Habit(null, "Read", null, null, "10 pages", null)
+		};
+		practiceUpdates = new PracticeTracker[] {
+				new PracticeTracker(null, true, LocalDate.of(2023, 9, 2), null),
+				new PracticeTracker(null, false, LocalDate.of(2023, 9, 1), null)
+		};
+		habitPatches = new Map[] {Map.of("routine", "20 pages"), Map.of("routine", "10 pages")};
+		practicePatches = new Map[] {
+				Map.of("done", true, "date", "2023-09-02"),
+				Map.of("done", false, "date", "2023-09-01")
+		};
+	}
+
+	private int next() {
+		return invocation++ & 1;
+	}
+
+	/**
+	 * The loop both update methods used to run on every request.
+	 */
+	private static <T> T mergeByReflection(Class<T> type, T target, T update) throws IllegalAccessException {
+		for (Field field : type.getDeclaredFields()) {
+			field.setAccessible(true);
+			Object newValue = field.get(update);
+			Object originalValue = field.get(target);
+			if (newValue != null && !newValue.equals(originalValue)) {
+				field.set(target, newValue);
+			}
+		}
+		return target;
+	}
+
+	@Benchmark
+	public Habit habitReflection() throws IllegalAccessException {
+		return mergeByReflection(Habit.class, habit, habitUpdates[next()]);
+	}
+
+	@Benchmark
+	public boolean habitApplier() {
+		return CategoryService.HABIT_PATCH.apply(habit, habitPatches[next()]);
+	}
+
+	@Benchmark
+	public PracticeTracker practiceReflection() throws IllegalAccessException {
+		return mergeByReflection(PracticeTracker.class, practice, practiceUpdates[next()]);
+	}
+
+	@Benchmark
+	public boolean practiceApplier() {
+		return PracticeService.PRACTICE_PATCH.apply(practice, practicePatches[next()]);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(PatchApplierBenchmark.class.getSimpleName()).build()).run();
+	}
+}
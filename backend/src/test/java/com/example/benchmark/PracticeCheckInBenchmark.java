@@ -0,0 +1,86 @@
+package com.example.benchmark;
+
+import com.example.model.Habit;
+import com.example.model.PracticeTracker;
+import com.example.model.request.PracticeCheckIn;
+import com.example.repository.CategoryRepository;
+import com.example.security.MyUserDetails;
+import com.example.service.CategoryService;
+import com.example.service.PracticeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rows per second of storing check-ins one request at a time versus one batch check-in.
+ * Every invocation stores ROWS consecutive days into a fresh habit.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PracticeCheckInBenchmark {
+	static final int ROWS = 100;
+
+	private ConfigurableApplicationContext context;
+	private CategoryService categoryService;
+	private PracticeService practiceService;
+	private Long categoryId;
+	private Long habitId;
+	private int habitCount;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		context = BenchmarkApplication.start();
+		BenchmarkApplication.authenticate(context, BenchmarkApplication.SEED_EMAIL);
+		categoryService = context.getBean(CategoryService.class);
+		practiceService = context.getBean(PracticeService.class);
+		Long userId = ((MyUserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getUser().getId();
+		categoryId = context.getBean(CategoryRepository.class).findByNameAndUserId("Morning Routine", userId).getId();
+	}
+
+	@Setup(Level.Invocation)
+	public void createHabit() {
+		Habit habit = new Habit(null, "benchmark habit " + habitCount++, "trigger", "outcome", "routine", null);
+		habitId = categoryService.createCategoryHabit(categoryId, habit).getId();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void singleRowCheckIns() {
+		LocalDate first = LocalDate.now().minusDays(ROWS - 1);
+		for (int i = 0; i < ROWS; i++) {
+			practiceService.createPractice(habitId, new PracticeTracker(null, true, first.plusDays(i), null));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public void batchCheckIn() {
+		LocalDate first = LocalDate.now().minusDays(ROWS - 1);
+		List<PracticeCheckIn> checkIns = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			checkIns.add(new PracticeCheckIn(habitId, first.plusDays(i), true));
+		}
+		practiceService.createPractices(checkIns);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(PracticeCheckInBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,87 @@
+package com.example.benchmark;
+
+import com.example.security.JWTUtils;
+import com.example.security.JwtRequestFilter;
+import com.example.security.MyUserDetails;
+import com.example.security.MyUserDetailsService;
+import com.example.security.PrincipalCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what every authenticated request pays before reaching a controller:
+ * loading the principal with and without the principal cache, and the whole JwtRequestFilter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrincipalLoadingBenchmark {
+	private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+	private ConfigurableApplicationContext context;
+	private MyUserDetailsService userDetailsService;
+	private PrincipalCache principalCache;
+	private JwtRequestFilter jwtRequestFilter;
+	private String authorization;
+
+	@Setup(Level.Trial)
+	public void startApplication() {
+		context = BenchmarkApplication.start("logging.level.com.example.security=WARN");
+		userDetailsService = context.getBean(MyUserDetailsService.class);
+		principalCache = context.getBean(PrincipalCache.class);
+		jwtRequestFilter = context.getBean(JwtRequestFilter.class);
+		MyUserDetails userDetails = (MyUserDetails) userDetailsService.loadUserByUsername(BenchmarkApplication.SEED_EMAIL);
+		authorization = "Bearer " + context.getBean(JWTUtils.class).generateJwtToken(userDetails);
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	@Benchmark
+	public UserDetails cachedPrincipal() {
+		return userDetailsService.loadUserByUsername(BenchmarkApplication.SEED_EMAIL);
+	}
+
+	/**
+	 * A cache miss: one credentials projection query.
+	 */
+	@Benchmark
+	public UserDetails uncachedPrincipal() {
+		principalCache.invalidate(BenchmarkApplication.SEED_EMAIL);
+		return userDetailsService.loadUserByUsername(BenchmarkApplication.SEED_EMAIL);
+	}
+
+	/**
+	 * Token verification and principal loading as done for a request, with warm caches.
+	 */
+	@Benchmark
+	public Object filterRequest() throws ServletException, IOException {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/habits/");
+		request.addHeader("Authorization", authorization);
+		jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+		Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+		SecurityContextHolder.clearContext();
+		return principal;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(PrincipalLoadingBenchmark.class.getSimpleName()).build()).run();
+	}
+}
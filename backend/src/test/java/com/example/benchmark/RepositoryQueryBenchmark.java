@@ -0,0 +1,131 @@
+package com.example.benchmark;
+
+import com.example.model.Category;
+import com.example.model.Habit;
+import com.example.model.PracticeTracker;
+import com.example.model.User;
+import com.example.model.projection.HabitDay;
+import com.example.repository.CategoryRepository;
+import com.example.repository.HabitRepository;
+import com.example.repository.PracticeRepository;
+import com.example.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the practice queries behind the read endpoints against an H2 database holding
+ * 1k, 100k or 1M practices of one user, spread over habits of 1000 consecutive days each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class RepositoryQueryBenchmark {
+	private static final int DAYS_PER_HABIT = 1000;
+	private static final int INSERT_CHUNK = 10_000;
+
+	@Param({"1000", "100000", "1000000"})
+	private int rows;
+
+	private ConfigurableApplicationContext context;
+	private PracticeRepository practiceRepository;
+	private Long userId;
+	private Long habitId;
+	private LocalDate today;
+
+	@Setup(Level.Trial)
+	public void seed() {
+		context = BenchmarkApplication.start();
+		practiceRepository = context.getBean(PracticeRepository.class);
+		today = LocalDate.now();
+
+		User user = context.getBean(UserRepository.class).save(new User(null, "rows-" + rows + "@example.com", "hash"));
+		userId = user.getId();
+		Category category = new Category(null, "Benchmark", "");
+		category.setUser(user);
+		category = context.getBean(CategoryRepository.class).save(category);
+		List<Habit> habits = new ArrayList<>();
+		for (int i = 0; i < Math.max(1, rows / DAYS_PER_HABIT); i++) {
+			Habit habit = new Habit(null, "Habit " + i, null, null, null, category);
+			habit.setUser(user);
+			habits.add(habit);
+		}
+		habits = context.getBean(HabitRepository.class).saveAll(habits);
+		habitId = habits.get(0).getId();
+
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		List<Object[]> chunk = new ArrayList<>(INSERT_CHUNK);
+		for (int i = 0; i < rows; i++) {
+			Long practiceHabitId = habits.get(i / DAYS_PER_HABIT).getId();
+			chunk.add(new Object[] {i % 3 != 0, Date.valueOf(today.minusDays(i % DAYS_PER_HABIT)), practiceHabitId, userId});
+			if (chunk.size() == INSERT_CHUNK || i == rows - 1) {
+				jdbcTemplate.batchUpdate("insert into practices (id, done, date, version, habit_id, user_id)" +
+						" values (next value for practices_seq, ?, ?, 0, ?, ?)", chunk);
+				chunk.clear();
+			}
+		}
+		jdbcTemplate.execute("analyze");
+	}
+
+	@TearDown(Level.Trial)
+	public void stopApplication() {
+		context.close();
+	}
+
+	/**
+	 * GET /api/practices/?limit=50
+	 */
+	@Benchmark
+	public List<PracticeTracker> firstPracticePage() {
+		return practiceRepository.findFirstPageByUserId(userId, PageRequest.of(0, 50));
+	}
+
+	/**
+	 * GET /api/practices/date/{date}/
+	 */
+	@Benchmark
+	public List<PracticeTracker> practicesOnDate() {
+		return practiceRepository.findByUserIdAndDate(userId, today.minusDays(10));
+	}
+
+	/**
+	 * GET /api/practices/date/?from=&to= over a month.
+	 */
+	@Benchmark
+	public List<PracticeTracker> practicesOfMonth() {
+		return practiceRepository.findByUserIdAndDateBetweenOrderByDateAscIdAsc(userId, today.minusDays(29), today);
+	}
+
+	/**
+	 * GET /api/habits/heatmap/ over a year.
+	 */
+	@Benchmark
+	public List<HabitDay> heatmapDaysOfYear() {
+		return practiceRepository.findDoneHabitDaysByUserIdBetween(userId, today.minusDays(364), today);
+	}
+
+	/**
+	 * Summary recomputation of one habit.
+	 */
+	@Benchmark
+	public List<LocalDate> habitDoneDates() {
+		return practiceRepository.findDoneDatesByHabitId(habitId);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(RepositoryQueryBenchmark.class.getSimpleName()).build()).run();
+	}
+}
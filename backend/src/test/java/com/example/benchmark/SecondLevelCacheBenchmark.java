@@ -0,0 +1,83 @@
+package com.example.benchmark;
+
+import com.example.repository.HabitRepository;
+import com.example.security.JWTUtils;
+import com.example.security.MyUserDetails;
+import com.example.security.MyUserDetailsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+
+/**
+ * Counts the SQL statements of a check-in with and without the Hibernate second-level cache.
+ * <p>
+ * Each round checks in one practice of the seeded user over HTTP; the habit it is stored under is looked up by id.
+ * Reported per configuration are the prepared statements per check-in, the check-ins per second and the hit
+ * ratio of the second-level cache. Settings are read from system properties: cache.rounds (default 2000).
+ * </p>
+ * @version 1.0.0
+ */
+public final class SecondLevelCacheBenchmark {
+
+	private SecondLevelCacheBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int rounds = Integer.getInteger("cache.rounds", 2000);
+		run("cache off", rounds,
+				"spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+				"spring.jpa.properties.hibernate.cache.use_query_cache=false");
+		run("cache on", rounds);
+	}
+
+	private static void run(String label, int rounds, String... properties) throws Exception {
+		ConfigurableApplicationContext context = BenchmarkApplication.start(properties);
+		try {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			MyUserDetails userDetails = (MyUserDetails) context.getBean(MyUserDetailsService.class)
+					.loadUserByUsername(BenchmarkApplication.SEED_EMAIL);
+			String jwt = context.getBean(JWTUtils.class).generateJwtToken(userDetails);
+			Long userId = userDetails.getUser().getId();
+			Long habitId = context.getBean(HabitRepository.class).findIdsByUserId(userId).get(0);
+			Statistics statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+			statistics.setStatisticsEnabled(true);
+			HttpClient client = HttpClient.newHttpClient();
+			LocalDate first = LocalDate.now().minusDays(rounds + 2000L);
+
+			checkIn(client, port, jwt, habitId, first.minusDays(1)); // warms the principal and the caches
+			statistics.clear();
+			long start = System.nanoTime();
+			for (int i = 0; i < rounds; i++) {
+				checkIn(client, port, jwt, habitId, first.plusDays(i));
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			long hits = statistics.getSecondLevelCacheHitCount();
+			long misses = statistics.getSecondLevelCacheMissCount();
+			System.out.printf("%s: statements/check-in=%.2f check-ins/s=%.0f l2 hits=%d misses=%d hit ratio=%.3f%n", label,
+					(double) statistics.getPrepareStatementCount() / rounds, rounds / seconds, hits, misses,
+					hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+		} finally {
+			context.close();
+		}
+	}
+
+	private static void checkIn(HttpClient client, int port, String jwt, Long habitId, LocalDate date) throws Exception {
+		HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/habits/" + habitId + "/practices/"))
+						.header("Authorization", "Bearer " + jwt)
+						.header("Content-Type", "application/json")
+						.POST(HttpRequest.BodyPublishers.ofString("{\"done\":true,\"date\":\"" + date + "\"}"))
+						.build(),
+				HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("check-in failed with status " + response.statusCode());
+		}
+	}
+}
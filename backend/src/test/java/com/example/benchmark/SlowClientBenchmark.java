@@ -0,0 +1,128 @@
+package com.example.benchmark;
+
+import com.example.repository.HabitRepository;
+import com.example.security.JWTUtils;
+import com.example.security.MyUserDetails;
+import com.example.security.MyUserDetailsService;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Compares the default bounded Tomcat pool with virtual-thread request handling under many slow clients.
+ * <p>
+ * Every client opens its own connection and dribbles the body of a batch check-in in small pieces, so the
+ * request thread blocks in the servlet input stream for the whole upload. With the platform pool only
+ * server.tomcat.threads.max requests progress at once; with virtual threads all of them do.
+ * Settings are read from system properties: slow.clients (default 10000), slow.pieces, slow.pause-ms.
+ * The client side needs a file descriptor limit above the number of clients.
+ * </p>
+ * @version 1.0.0
+ */
+public final class SlowClientBenchmark {
+
+	private SlowClientBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int clients = Integer.getInteger("slow.clients", 10_000);
+		int pieces = Integer.getInteger("slow.pieces", 10);
+		int pauseMillis = Integer.getInteger("slow.pause-ms", 100);
+		for (boolean virtualThreads : new boolean[] {false, true}) {
+			run(virtualThreads, clients, pieces, pauseMillis);
+		}
+	}
+
+	private static void run(boolean virtualThreads, int clients, int pieces, int pauseMillis) throws Exception {
+		ConfigurableApplicationContext context = BenchmarkApplication.start(
+				"spring.threads.virtual.enabled=" + virtualThreads,
+				"server.tomcat.max-connections=" + (clients + 1000),
+				"server.tomcat.accept-count=" + clients);
+		try {
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			MyUserDetails userDetails = (MyUserDetails) context.getBean(MyUserDetailsService.class)
+					.loadUserByUsername(BenchmarkApplication.SEED_EMAIL);
+			String jwt = context.getBean(JWTUtils.class).generateJwtToken(userDetails);
+			Long habitId = context.getBean(HabitRepository.class).findIdsByUserId(userDetails.getUser().getId()).get(0);
+			byte[] body = ("[{\"habitId\":" + habitId + ",\"date\":\"" + LocalDate.now() + "\",\"done\":true}]")
+					.getBytes(StandardCharsets.UTF_8);
+
+			AtomicLongArray latencies = new AtomicLongArray(clients);
+			AtomicInteger failures = new AtomicInteger();
+			long start = System.nanoTime();
+			try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+				for (int i = 0; i < clients; i++) {
+					int client = i;
+					executor.submit(() -> {
+						long requestStart = System.nanoTime();
+						try {
+							if (post(port, jwt, body, pieces, pauseMillis)) {
+								latencies.set(client, System.nanoTime() - requestStart);
+							} else {
+								failures.incrementAndGet();
+							}
+						} catch (IOException | InterruptedException e) {
+							failures.incrementAndGet();
+						}
+					});
+				}
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			long[] sorted = new long[clients];
+			for (int i = 0; i < clients; i++) {
+				sorted[i] = latencies.get(i);
+			}
+			sorted = Arrays.stream(sorted).filter(latency -> latency > 0).sorted().toArray();
+			System.out.printf("%-16s clients=%d completed=%d failed=%d wall=%.1fs throughput=%.0f req/s p50=%.0fms p99=%.0fms max=%.0fms%n",
+					virtualThreads ? "virtual threads" : "platform pool", clients, sorted.length, failures.get(), seconds,
+					sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+		} finally {
+			context.close();
+		}
+	}
+
+	/**
+	 * Posts the body in pieces with a pause between them, then reads the status line.
+	 *
+	 * @return true if the response status is 2xx.
+	 */
+	private static boolean post(int port, String jwt, byte[] body, int pieces, int pauseMillis) throws IOException, InterruptedException {
+		try (Socket socket = new Socket("localhost", port)) {
+			OutputStream out = socket.getOutputStream();
+			out.write(("POST /api/practices/batch/ HTTP/1.1\r\n" +
+					"Host: localhost\r\n" +
+					"Authorization: Bearer " + jwt + "\r\n" +
+					"Content-Type: application/json\r\n" +
+					"Content-Length: " + body.length + "\r\n" +
+					"Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+			int pieceSize = (body.length + pieces - 1) / pieces;
+			for (int offset = 0; offset < body.length; offset += pieceSize) {
+				out.write(body, offset, Math.min(pieceSize, body.length - offset));
+				out.flush();
+				Thread.sleep(pauseMillis);
+			}
+			String statusLine = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+			return statusLine != null && statusLine.startsWith("HTTP/1.1 2");
+		}
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.ceil(quantile * sorted.length) - 1;
+		return sorted[Math.max(index, 0)] / 1e6;
+	}
+}
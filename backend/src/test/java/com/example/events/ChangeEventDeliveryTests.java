@@ -0,0 +1,86 @@
+package com.example.events;
+
+import com.example.IntegrationTest;
+import com.example.model.SyncChange;
+import com.example.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the delivery of change events through the application: only committed changes reach a stream,
+ * and the stream limits surface as 429.
+ */
+class ChangeEventDeliveryTests extends IntegrationTest {
+	private static final String EMAIL = "events@example.com";
+	private static final String LIMITED_EMAIL = "events-limited@example.com";
+	private static final long TIMEOUT = 5000;
+
+	@Autowired
+	private ChangeEventHub changeEventHub;
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	@Autowired
+	private UserRepository userRepository;
+
+	private String jwt;
+	private Long userId;
+
+	@BeforeAll
+	void setUp() throws Exception {
+		jwt = register(EMAIL).get("jwt").asText();
+		userId = userRepository.findUserByEmailAddress(EMAIL).getId();
+	}
+
+	private void publish(long revision, boolean commit) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			eventPublisher.publishEvent(new ChangeEvent(userId, revision, SyncChange.EntityType.HABIT, List.of(1L), false));
+			if (!commit) {
+				status.setRollbackOnly();
+			}
+		});
+	}
+
+	@Test
+	void onlyCommittedChangesArePushed() throws Exception {
+		Long habitId = createHabit(jwt, "Morning Routine", "Shower");
+		RecordingEmitter emitter = new RecordingEmitter();
+		changeEventHub.connect(userId, () -> 2, emitter);
+		assertThat(emitter.next(TIMEOUT)).startsWith("event:revision\nid:2\n");
+
+		Long practiceId = postJson("/api/habits/" + habitId + "/practices/", jwt,
+				"{\"done\":true,\"date\":\"" + LocalDate.now().minusDays(1) + "\"}").get("id").asLong();
+		String change = emitter.next(TIMEOUT);
+		assertThat(change).startsWith("event:change\n").contains("\"type\":\"PRACTICE\"", "\"ids\":[" + practiceId + "]");
+
+		publish(100, false);
+		publish(101, true);
+		assertThat(emitter.next(TIMEOUT)).startsWith("event:change\nid:101\n"); // events are queued in order, 100 never was
+	}
+
+	@Test
+	void streamsBeyondTheLimitAreTooManyRequests() throws Exception {
+		String limitedJwt = register(LIMITED_EMAIL).get("jwt").asText();
+		for (int stream = 0; stream < 10; stream++) { // sse.max-connections-per-user
+			mockMvc.perform(get("/api/events/").header("Authorization", bearer(limitedJwt)))
+					.andExpect(request().asyncStarted());
+		}
+		mockMvc.perform(get("/api/events/").header("Authorization", bearer(limitedJwt)))
+				.andExpect(status().isTooManyRequests());
+		mockMvc.perform(get("/api/events/").header("Authorization", bearer(jwt)))
+				.andExpect(request().asyncStarted());
+	}
+}
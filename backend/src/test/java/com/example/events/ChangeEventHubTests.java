@@ -0,0 +1,86 @@
+package com.example.events;
+
+import com.example.exception.TooManyRequestsException;
+import com.example.model.SyncChange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeEventHubTests {
+	private static final long TIMEOUT = 5000;
+
+	private static ChangeEventHub hub(int maxConnections, int maxConnectionsPerUser, int queueCapacity) {
+		ChangeEventHub hub = new ChangeEventHub(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(hub, "maxConnections", maxConnections);
+		ReflectionTestUtils.setField(hub, "maxConnectionsPerUser", maxConnectionsPerUser);
+		ReflectionTestUtils.setField(hub, "queueCapacity", queueCapacity);
+		return hub;
+	}
+
+	private static ChangeEvent change(Long userId, long revision) {
+		return new ChangeEvent(userId, revision, SyncChange.EntityType.PRACTICE, List.of(revision), false);
+	}
+
+	@Test
+	void streamsPerUserAreLimited() {
+		ChangeEventHub hub = hub(10, 2, 4);
+		hub.connect(1L, () -> 0, new RecordingEmitter());
+		hub.connect(1L, () -> 0, new RecordingEmitter());
+		assertThatThrownBy(() -> hub.connect(1L, () -> 0, new RecordingEmitter())).isInstanceOf(TooManyRequestsException.class);
+		hub.connect(2L, () -> 0, new RecordingEmitter());
+		assertThat(hub.getConnectionCount()).isEqualTo(3);
+	}
+
+	@Test
+	void streamsInTotalAreLimited() {
+		ChangeEventHub hub = hub(3, 2, 4);
+		hub.connect(1L, () -> 0, new RecordingEmitter());
+		hub.connect(1L, () -> 0, new RecordingEmitter());
+		hub.connect(2L, () -> 0, new RecordingEmitter());
+		assertThatThrownBy(() -> hub.connect(3L, () -> 0, new RecordingEmitter())).isInstanceOf(TooManyRequestsException.class);
+		assertThat(hub.getConnectionCount()).isEqualTo(3);
+	}
+
+	@Test
+	void changeCommittedWhileConnectingFollowsTheRevision() throws Exception {
+		ChangeEventHub hub = hub(10, 2, 4);
+		RecordingEmitter emitter = new RecordingEmitter();
+		hub.connect(1L, () -> {
+			hub.onChange(change(1L, 6)); // commits after the registration, before the revision is read
+			return 5;
+		}, emitter);
+		assertThat(emitter.next(TIMEOUT)).startsWith("event:revision\nid:5\n");
+		assertThat(emitter.next(TIMEOUT)).startsWith("event:change\nid:6\n");
+	}
+
+	@Test
+	void failedRevisionReadReleasesTheStream() {
+		ChangeEventHub hub = hub(10, 1, 4);
+		assertThatThrownBy(() -> hub.connect(1L, () -> {
+			throw new IllegalStateException("no sync state");
+		}, new RecordingEmitter())).isInstanceOf(IllegalStateException.class);
+		assertThat(hub.getConnectionCount()).isZero();
+		hub.connect(1L, () -> 0, new RecordingEmitter());
+	}
+
+	@Test
+	void fullQueueCollapsesToOneResync() throws Exception {
+		ChangeEventHub hub = hub(10, 2, 2);
+		CountDownLatch reading = new CountDownLatch(1);
+		RecordingEmitter emitter = new RecordingEmitter(reading);
+		hub.connect(1L, () -> 0, emitter); // the writer waits on the revision event
+		for (long revision = 1; revision <= 3; revision++) {
+			hub.onChange(change(1L, revision));
+		}
+		reading.countDown();
+		assertThat(emitter.next(TIMEOUT)).startsWith("event:revision\n");
+		assertThat(emitter.next(TIMEOUT)).isEqualTo("event:resync\ndata:3\n\n");
+		assertThat(emitter.next(200)).isNull();
+	}
+}
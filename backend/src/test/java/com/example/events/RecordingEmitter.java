@@ -0,0 +1,53 @@
+package com.example.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An emitter that records the events written to it as SSE text, instead of writing them to a response.
+ * Sends wait for the given latch, which stands in for a client that does not read.
+ */
+final class RecordingEmitter extends SseEmitter {
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+	private final CountDownLatch reading;
+
+	RecordingEmitter() {
+		this(new CountDownLatch(0));
+	}
+
+	RecordingEmitter(CountDownLatch reading) {
+		this.reading = reading;
+	}
+
+	@Override
+	public void send(SseEventBuilder builder) throws IOException {
+		try {
+			reading.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+		StringBuilder text = new StringBuilder();
+		for (DataWithMediaType part : builder.build()) {
+			text.append(part.getData() instanceof String string ? string : OBJECT_MAPPER.writeValueAsString(part.getData()));
+		}
+		events.add(text.toString());
+	}
+
+	/**
+	 * Waits for the next written event.
+	 *
+	 * @return The event as SSE text, or null if none is written within the timeout.
+	 */
+	String next(long timeoutMillis) throws InterruptedException {
+		return events.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+	}
+}
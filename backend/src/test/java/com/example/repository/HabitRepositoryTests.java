@@ -0,0 +1,96 @@
+package com.example.repository;
+
+import com.example.model.Category;
+import com.example.model.Habit;
+import com.example.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks that habit and category names are unique per user only, and that the name checks
+ * are answered from the (user_id, name) indexes.
+ */
+@DataJpaTest
+class HabitRepositoryTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+	@Autowired
+	private HabitRepository habitRepository;
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	private final List<User> users = new ArrayList<>();
+	private final List<Category> categories = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		for (int u = 0; u < 3; u++) {
+			User user = entityManager.persist(new User(null, "user" + u + "@example.com", "hash"));
+			Category category = new Category(null, "Health", "");
+			category.setUser(user);
+			entityManager.persist(category);
+			Habit habit = new Habit(null, "Run", null, null, null, category);
+			habit.setUser(user);
+			entityManager.persist(habit);
+			users.add(user);
+			categories.add(category);
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private String explain(String sql) {
+		return entityManager.getEntityManager().createNativeQuery("explain " + sql).getSingleResult().toString();
+	}
+
+	@Test
+	void existsByNameAndUserIdOnlySeesThatUsersHabits() {
+		assertThat(habitRepository.existsByNameAndUserId("Run", users.get(0).getId())).isTrue();
+		assertThat(habitRepository.existsByNameAndUserId("Swim", users.get(0).getId())).isFalse();
+		assertThat(categoryRepository.existsByNameAndUserId("Health", users.get(1).getId())).isTrue();
+	}
+
+	@Test
+	void sameHabitNameOfAnotherUserIsAccepted() {
+		User user = entityManager.persist(new User(null, "other@example.com", "hash"));
+		Category category = new Category(null, "Health", "");
+		category.setUser(user);
+		categoryRepository.saveAndFlush(category);
+		Habit habit = new Habit(null, "Run", null, null, null, category);
+		habit.setUser(user);
+		assertThat(habitRepository.saveAndFlush(habit).getId()).isNotNull();
+	}
+
+	@Test
+	void duplicateHabitNameOfTheSameUserIsRejected() {
+		Habit duplicate = new Habit(null, "Run", null, null, null, categories.get(2));
+		duplicate.setUser(users.get(2));
+		assertThatThrownBy(() -> habitRepository.saveAndFlush(duplicate))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void duplicateCategoryNameOfTheSameUserIsRejected() {
+		Category duplicate = new Category(null, "Health", "again");
+		duplicate.setUser(users.get(1));
+		assertThatThrownBy(() -> categoryRepository.saveAndFlush(duplicate))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	@Test
+	void habitNameCheckUsesUserNameIndex() {
+		String plan = explain("select id from habits where user_id = " + users.get(0).getId() + " and name = 'Run'");
+		assertThat(plan).containsIgnoringCase("uk_habits_user_name");
+	}
+}
@@ -0,0 +1,100 @@
+package com.example.repository;
+
+import com.example.model.Category;
+import com.example.model.Habit;
+import com.example.model.PracticeTracker;
+import com.example.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the user-scoped date queries of PracticeRepository and, through H2's EXPLAIN,
+ * that they are answered from the practices indexes rather than a table scan.
+ */
+@DataJpaTest
+class PracticeRepositoryTests {
+	private static final LocalDate TODAY = LocalDate.of(2024, 6, 30);
+
+	@Autowired
+	private TestEntityManager entityManager;
+	@Autowired
+	private PracticeRepository practiceRepository;
+
+	private final List<User> users = new ArrayList<>();
+	private final List<Habit> habits = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		for (int u = 0; u < 5; u++) {
+			User user = entityManager.persist(new User(null, "user" + u + "@example.com", "hash"));
+			Category category = new Category(null, "Health", "");
+			category.setUser(user);
+			entityManager.persist(category);
+			Habit habit = new Habit(null, "Run", null, null, null, category);
+			habit.setUser(user);
+			entityManager.persist(habit);
+			users.add(user);
+			habits.add(habit);
+			for (int day = 0; day < 100; day++) {
+				PracticeTracker practice = new PracticeTracker(null, day % 2 == 0, TODAY.minusDays(day), habit);
+				practice.setUser(user);
+				entityManager.persist(practice);
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	private String explain(String sql) {
+		return entityManager.getEntityManager().createNativeQuery("explain " + sql).getSingleResult().toString();
+	}
+
+	@Test
+	void findByUserIdAndDateReturnsOnlyThatUsersPractices() {
+		List<PracticeTracker> practices = practiceRepository.findByUserIdAndDate(users.get(0).getId(), TODAY);
+		assertThat(practices).hasSize(1);
+		assertThat(practices.get(0).getUser().getId()).isEqualTo(users.get(0).getId());
+	}
+
+	@Test
+	void findByUserIdAndDateBetweenIsInclusiveAndOrdered() {
+		List<PracticeTracker> practices = practiceRepository.findByUserIdAndDateBetweenOrderByDateAscIdAsc(
+				users.get(1).getId(), TODAY.minusDays(6), TODAY);
+		assertThat(practices).hasSize(7);
+		assertThat(practices).extracting(PracticeTracker::getDate).isSorted();
+		assertThat(practices).allMatch(practice -> practice.getUser().getId().equals(users.get(1).getId()));
+	}
+
+	@Test
+	void userDateRangeUsesUserDateIndex() {
+		String plan = explain("select id from practices where user_id = " + users.get(2).getId()
+				+ " and date between date '2024-06-01' and date '2024-06-30'");
+		assertThat(plan).containsIgnoringCase("idx_practices_user_date");
+	}
+
+	@Test
+	void habitDateRangeUsesHabitDateIndex() {
+		String plan = explain("select date from practices where habit_id = " + habits.get(3).getId()
+				+ " and date between date '2024-06-01' and date '2024-06-30'");
+		assertThat(plan).containsIgnoringCase("uk_practices_habit_date");
+	}
+
+	@Test
+	void secondCheckInOfTheSameDayIsRejected() {
+		PracticeTracker duplicate = new PracticeTracker(null, true, TODAY, habits.get(4));
+		duplicate.setUser(users.get(4));
+		assertThatThrownBy(() -> practiceRepository.saveAndFlush(duplicate))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+}
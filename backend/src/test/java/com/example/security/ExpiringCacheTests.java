@@ -0,0 +1,93 @@
+package com.example.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpiringCacheTests {
+
+	@Test
+	void entriesExpireAfterTheTtl() throws Exception {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(50, 10);
+		cache.put("a", "1");
+		assertThat(cache.get("a")).isEqualTo("1");
+		Thread.sleep(100);
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.size()).isZero();
+		assertThat(cache.evictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void explicitExpiryIsCappedByTheTtl() throws Exception {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(50, 10);
+		cache.put("past", "1", System.currentTimeMillis() - 1);
+		cache.put("far", "2", System.currentTimeMillis() + 3_600_000);
+		assertThat(cache.get("past")).isNull();
+		assertThat(cache.get("far")).isEqualTo("2");
+		Thread.sleep(100);
+		assertThat(cache.get("far")).isNull();
+	}
+
+	@Test
+	void fullCacheIsTrimmedToNinetyPercent() {
+		ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(60_000, 100);
+		for (int i = 0; i < 100; i++) {
+			cache.put(i, i);
+		}
+		cache.put(100, 100);
+		assertThat(cache.size()).isEqualTo(91);
+		assertThat(cache.evictionCount()).isEqualTo(10);
+		assertThat(cache.get(100)).isEqualTo(100);
+
+		cache.put(100, 101); // an existing key does not trim
+		assertThat(cache.size()).isEqualTo(91);
+	}
+
+	@Test
+	void expiredEntriesAreSweptBeforeLiveOnes() {
+		ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(60_000, 100);
+		for (int i = 0; i < 100; i++) {
+			cache.put(i, i, i < 20 ? System.currentTimeMillis() - 1 : Long.MAX_VALUE);
+		}
+		cache.put(100, 100);
+		assertThat(cache.size()).isEqualTo(81);
+		assertThat(cache.evictionCount()).isEqualTo(20);
+		for (int i = 20; i <= 100; i++) {
+			assertThat(cache.get(i)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	void hitsAndMissesAreCounted() {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(60_000, 10);
+		assertThat(cache.get("a")).isNull();
+		cache.put("a", "1");
+		cache.get("a");
+		cache.get("a");
+		cache.get("b");
+		assertThat(cache.hitCount()).isEqualTo(2);
+		assertThat(cache.missCount()).isEqualTo(2);
+		assertThat(cache.evictionCount()).isZero();
+	}
+
+	@Test
+	void invalidateRemovesTheEntry() {
+		ExpiringCache<String, String> cache = new ExpiringCache<>(60_000, 10);
+		cache.put("a", "1");
+		cache.put("b", "2");
+		cache.invalidate("a");
+		cache.invalidate("missing");
+		assertThat(cache.get("a")).isNull();
+		assertThat(cache.get("b")).isEqualTo("2");
+		assertThat(cache.evictionCount()).isZero(); // an invalidation is not an eviction
+		cache.invalidateAll();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void nonPositiveBoundsAreRejected() {
+		assertThatThrownBy(() -> new ExpiringCache<>(0, 10)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new ExpiringCache<>(1000, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.security;
+
+import com.example.IntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Covers the bounded hashing pool behind login: with one thread and one queue slot taken, a further login is
+ * rejected at once, and logins whose hash does not finish within the wait time time out; both are 429.
+ * The password check waits on a gate here, so that the pool stays busy for as long as the test needs.
+ */
+@Import(PasswordHashingTests.GatedHashing.class)
+class PasswordHashingTests extends IntegrationTest {
+	private static final String EMAIL = "password-hashing@example.com";
+	private static final long MAX_WAIT_MILLIS = 1000;
+	private static final GatedPasswordEncoder GATED_ENCODER = new GatedPasswordEncoder();
+	private static final SimpleMeterRegistry METER_REGISTRY = new SimpleMeterRegistry();
+
+	/**
+	 * Replaces the application's encoder by a bounded one with one thread and one queue slot around the gated check.
+	 */
+	@TestConfiguration
+	static class GatedHashing {
+		@Bean
+		static BeanPostProcessor gatedPasswordEncoder() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (bean instanceof BoundedPasswordEncoder encoder) {
+						encoder.shutdown();
+						return new BoundedPasswordEncoder(GATED_ENCODER, 1, 1, MAX_WAIT_MILLIS, METER_REGISTRY);
+					}
+					return bean;
+				}
+			};
+		}
+	}
+
+	/**
+	 * Checks passwords with BCrypt once the gate is open, and reports each check that started.
+	 */
+	static final class GatedPasswordEncoder implements PasswordEncoder {
+		private final PasswordEncoder delegate = new BCryptPasswordEncoder(4);
+		private volatile CountDownLatch gate = new CountDownLatch(0);
+		private volatile CountDownLatch started = new CountDownLatch(1);
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			return delegate.encode(rawPassword);
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			started.countDown();
+			try {
+				gate.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return delegate.matches(rawPassword, encodedPassword);
+		}
+	}
+
+	@BeforeAll
+	void setUp() throws Exception {
+		register(EMAIL);
+	}
+
+	private int loginStatus() throws Exception {
+		return performLogin(EMAIL).andReturn().getResponse().getStatus();
+	}
+
+	@Test
+	void saturatedPoolRejectsAndTimesOutWith429() throws Exception {
+		assertThat(loginStatus()).isEqualTo(200);
+
+		GATED_ENCODER.gate = new CountDownLatch(1);
+		GATED_ENCODER.started = new CountDownLatch(1);
+		ExecutorService clients = Executors.newFixedThreadPool(2);
+		try {
+			Future<Integer> running = clients.submit(this::loginStatus);
+			assertThat(GATED_ENCODER.started.await(5, TimeUnit.SECONDS)).isTrue(); // holds the only thread
+			Future<Integer> queued = clients.submit(this::loginStatus);
+			for (int attempt = 0; attempt < 100 && METER_REGISTRY.get("dailyrise.password.queue.size").gauge().value() < 1; attempt++) {
+				Thread.sleep(10);
+			}
+			assertThat(METER_REGISTRY.get("dailyrise.password.queue.size").gauge().value()).isEqualTo(1); // holds the only slot
+
+			long start = System.nanoTime();
+			assertThat(loginStatus()).isEqualTo(429); // rejected
+			assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(MAX_WAIT_MILLIS);
+
+			assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(429); // timed out while hashing
+			assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(429); // timed out while queued
+			assertThat(METER_REGISTRY.get("dailyrise.password.rejected").counter().count()).isEqualTo(3);
+		} finally {
+			GATED_ENCODER.gate.countDown();
+			clients.shutdown();
+		}
+
+		for (int attempt = 0; attempt < 100 && METER_REGISTRY.get("dailyrise.password.active").gauge().value() > 0; attempt++) {
+			Thread.sleep(10);
+		}
+		assertThat(loginStatus()).isEqualTo(200);
+	}
+}
@@ -0,0 +1,45 @@
+package com.example.security;
+
+import com.example.model.User;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrincipalCacheTests {
+
+	private static MyUserDetails principal(String emailAddress) {
+		User user = new User();
+		user.setEmailAddress(emailAddress);
+		return new MyUserDetails(user);
+	}
+
+	@Test
+	void principalsAreCachedBySubjectUntilInvalidated() {
+		PrincipalCache cache = new PrincipalCache(60_000, 10);
+		MyUserDetails principal = principal("a@example.com");
+		assertThat(cache.get("a@example.com")).isNull();
+		cache.put("a@example.com", principal);
+		cache.put("b@example.com", principal("b@example.com"));
+		assertThat(cache.get("a@example.com")).isSameAs(principal);
+
+		cache.invalidate("a@example.com");
+		assertThat(cache.get("a@example.com")).isNull();
+		assertThat(cache.get("b@example.com")).isNotNull();
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.hitCount()).isEqualTo(2);
+		assertThat(cache.missCount()).isEqualTo(2);
+	}
+
+	@Test
+	void principalsExpireAndAreEvictedWhenFull() throws Exception {
+		PrincipalCache cache = new PrincipalCache(50, 10);
+		for (int i = 0; i <= 10; i++) {
+			cache.put("user" + i + "@example.com", principal("user" + i + "@example.com"));
+		}
+		assertThat(cache.size()).isEqualTo(10); // trimmed to 9, then the new one
+		assertThat(cache.evictionCount()).isEqualTo(1);
+		Thread.sleep(100);
+		assertThat(cache.get("user10@example.com")).isNull();
+		assertThat(cache.evictionCount()).isEqualTo(2);
+	}
+}
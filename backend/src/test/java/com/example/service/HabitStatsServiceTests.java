@@ -0,0 +1,49 @@
+package com.example.service;
+
+import com.example.model.response.HabitStats;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HabitStatsServiceTests {
+	private static final LocalDate TODAY = LocalDate.of(2024, 6, 30);
+
+	@Test
+	void noDoneDaysGivesEmptyStats() {
+		HabitStats stats = HabitStatsService.computeStats(1L, TODAY, HabitStatsService.toBitmap(List.of(), TODAY));
+		assertThat(stats.getCurrentStreak()).isZero();
+		assertThat(stats.getLongestStreak()).isZero();
+		assertThat(stats.getLastDoneDate()).isNull();
+	}
+
+	@Test
+	void streakSurvivesTodayNotYetCheckedIn() {
+		List<LocalDate> dates = List.of(TODAY.minusDays(1), TODAY.minusDays(2), TODAY.minusDays(3), TODAY.minusDays(10));
+		HabitStats stats = HabitStatsService.computeStats(1L, TODAY, HabitStatsService.toBitmap(dates, TODAY));
+		assertThat(stats.getCurrentStreak()).isEqualTo(3);
+		assertThat(stats.getLongestStreak()).isEqualTo(3);
+		assertThat(stats.getLastDoneDate()).isEqualTo(TODAY.minusDays(1));
+		assertThat(stats.getTotalDone()).isEqualTo(4);
+		assertThat(stats.getCompletionRate7()).isEqualTo(3.0 / 7);
+	}
+
+	@Test
+	void tenYearsOfHistorySpanningManyWords() {
+		List<LocalDate> dates = new ArrayList<>();
+		LocalDate first = TODAY.minusYears(10);
+		for (LocalDate day = first; !day.isAfter(TODAY); day = day.plusDays(1)) {
+			if (!day.equals(TODAY.minusDays(400)) && !day.equals(TODAY.minusDays(200))) {
+				dates.add(day);
+			}
+		}
+		HabitStats stats = HabitStatsService.computeStats(1L, TODAY, HabitStatsService.toBitmap(dates, TODAY));
+		assertThat(stats.getCurrentStreak()).isEqualTo(200);
+		assertThat(stats.getLongestStreak()).isEqualTo((int) (TODAY.minusDays(401).toEpochDay() - first.toEpochDay() + 1));
+		assertThat(stats.getCompletionRate30()).isEqualTo(1.0);
+		assertThat(stats.getCompletionRate365()).isEqualTo(364.0 / 365);
+	}
+}
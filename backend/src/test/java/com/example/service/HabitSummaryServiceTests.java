@@ -0,0 +1,131 @@
+package com.example.service;
+
+import com.example.IntegrationTest;
+import com.example.model.HabitSummary;
+import com.example.repository.HabitSummaryRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Covers the materialized habit summaries: which writes are applied incrementally, which recompute,
+ * and the rebuild and consistency jobs. Summaries are corrupted by hand where a test has to tell
+ * the incremental path from a recompute.
+ */
+class HabitSummaryServiceTests extends IntegrationTest {
+	private static final String EMAIL = "habit-summary@example.com";
+	private static final LocalDate TODAY = LocalDate.now();
+
+	@Autowired
+	private HabitSummaryService habitSummaryService;
+	@Autowired
+	private HabitSummaryRepository habitSummaryRepository;
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private String jwt;
+
+	@BeforeAll
+	void setUp() throws Exception {
+		jwt = register(EMAIL).get("jwt").asText();
+	}
+
+	private Long checkIn(Long habitId, LocalDate date, boolean done) throws Exception {
+		return postJson("/api/habits/" + habitId + "/practices/", jwt, "{\"done\":" + done + ",\"date\":\"" + date + "\"}")
+				.get("id").asLong();
+	}
+
+	private HabitSummary summary(Long habitId) {
+		return habitSummaryRepository.findById(habitId).orElseThrow();
+	}
+
+	private void store(HabitSummary summary) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> habitSummaryRepository.save(summary));
+	}
+
+	private void recordDone(Long habitId, LocalDate... dates) {
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> habitSummaryService.recordDone(habitId, List.of(dates)));
+	}
+
+	@Test
+	void inOrderCheckInsAreAppliedIncrementally() throws Exception {
+		Long habitId = createHabit(jwt, "Incremental", "Read");
+		checkIn(habitId, TODAY.minusDays(3), true);
+		checkIn(habitId, TODAY.minusDays(2), true);
+		checkIn(habitId, TODAY.minusDays(1), true);
+		assertThat(summary(habitId).sameCountersAs(new HabitSummary(habitId, 3, 3, TODAY.minusDays(1), 3))).isTrue();
+
+		// counters no recompute could produce from the practices, so only an in-place update keeps them
+		store(new HabitSummary(habitId, 5, 8, TODAY.minusDays(1), 20));
+		recordDone(habitId, TODAY, TODAY.plusDays(1));
+		assertThat(summary(habitId).sameCountersAs(new HabitSummary(habitId, 7, 8, TODAY.plusDays(1), 22))).isTrue();
+	}
+
+	@Test
+	void backDatedCheckInRecomputes() throws Exception {
+		Long habitId = createHabit(jwt, "Back-dated", "Stretch");
+		checkIn(habitId, TODAY.minusDays(1), true);
+		checkIn(habitId, TODAY.minusDays(3), true);
+		assertThat(summary(habitId).sameCountersAs(new HabitSummary(habitId, 1, 1, TODAY.minusDays(1), 2))).isTrue();
+
+		checkIn(habitId, TODAY.minusDays(2), true); // joins the two days into one streak
+		assertThat(summary(habitId).sameCountersAs(new HabitSummary(habitId, 3, 3, TODAY.minusDays(1), 3))).isTrue();
+
+		store(new HabitSummary(habitId, 5, 8, TODAY.minusDays(1), 20));
+		recordDone(habitId, TODAY.minusDays(5));
+		assertThat(summary(habitId).sameCountersAs(habitSummaryService.computeSummary(habitId))).isTrue();
+	}
+
+	@Test
+	void undoneCheckInRecomputes() throws Exception {
+		Long habitId = createHabit(jwt, "Undone", "Journal");
+		checkIn(habitId, TODAY.minusDays(2), true);
+		Long practiceId = checkIn(habitId, TODAY.minusDays(1), true);
+		assertThat(summary(habitId).getCurrentStreak()).isEqualTo(2);
+
+		mockMvc.perform(patch("/api/practices/" + practiceId)
+						.header("Authorization", bearer(jwt))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"done\":false}"))
+				.andExpect(status().isOk());
+		assertThat(summary(habitId).sameCountersAs(new HabitSummary(habitId, 1, 1, TODAY.minusDays(2), 1))).isTrue();
+	}
+
+	@Test
+	void rebuildAllRestoresCorruptedSummaries() throws Exception {
+		Long habitId = createHabit(jwt, "Rebuilt", "Walk");
+		checkIn(habitId, TODAY.minusDays(2), true);
+		checkIn(habitId, TODAY.minusDays(1), true);
+		store(new HabitSummary(habitId, 0, 0, null, 0));
+
+		assertThat(habitSummaryService.rebuildAll()).isPositive();
+		assertThat(summary(habitId).sameCountersAs(new HabitSummary(habitId, 2, 2, TODAY.minusDays(1), 2))).isTrue();
+	}
+
+	@Test
+	void findInconsistenciesReportsACorruptedSummary() throws Exception {
+		Long habitId = createHabit(jwt, "Checked", "Floss");
+		checkIn(habitId, TODAY.minusDays(1), true);
+		assertThat(habitSummaryService.findInconsistencies()).noneMatch(mismatch -> mismatch.habitId().equals(habitId));
+
+		store(new HabitSummary(habitId, 4, 4, TODAY.minusDays(1), 4));
+		List<HabitSummaryService.HabitSummaryMismatch> mismatches = habitSummaryService.findInconsistencies();
+		assertThat(mismatches).filteredOn(mismatch -> mismatch.habitId().equals(habitId)).singleElement().satisfies(mismatch -> {
+			assertThat(mismatch.stored().getTotalDone()).isEqualTo(4);
+			assertThat(mismatch.expected().sameCountersAs(new HabitSummary(habitId, 1, 1, TODAY.minusDays(1), 1))).isTrue();
+		});
+
+		habitSummaryService.recompute(habitId);
+		assertThat(habitSummaryService.findInconsistencies()).noneMatch(mismatch -> mismatch.habitId().equals(habitId));
+	}
+}